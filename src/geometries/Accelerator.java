@@ -0,0 +1,27 @@
+package geometries;
+
+import java.util.List;
+
+/**
+ * Acceleration structure of a {@link Geometries} collection, used instead of
+ * scanning all the intersectables of the collection for every ray
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+interface Accelerator {
+    /**
+     * Hands a ray query the intersectables in the structure which the ray may hit,
+     * until the query is finished
+     *
+     * @param query the query of the ray
+     */
+    void traverse(RayQuery query);
+
+    /**
+     * Updates the structure after intersectables moved or changed their bounding boxes
+     *
+     * @param intersectables the intersectables of the collection
+     * @return the structure to use from now on - this structure, or a new one rebuilt from scratch
+     */
+    Accelerator refit(List<Intersectable> intersectables);
+}
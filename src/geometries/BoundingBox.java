@@ -0,0 +1,183 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * Axis-aligned bounding box (AABB) of an {@link Intersectable}
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class BoundingBox {
+    /**
+     * Relative slack of the slab test, keeps hits that lay exactly on a box face
+     */
+    static final double SLACK = 1e-9;
+
+    /**
+     * Lower corner coordinates of the box.
+     */
+    private final double minX, minY, minZ;
+    /**
+     * Upper corner coordinates of the box.
+     */
+    private final double maxX, maxY, maxZ;
+
+    /**
+     * Constructor to initialize BoundingBox based on its corner coordinates
+     *
+     * @param minX lower x coordinate
+     * @param minY lower y coordinate
+     * @param minZ lower z coordinate
+     * @param maxX upper x coordinate
+     * @param maxY upper y coordinate
+     * @param maxZ upper z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructor to initialize the smallest BoundingBox containing all the given points
+     *
+     * @param points the points to bound
+     */
+    public BoundingBox(Point... points) {
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY, z1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY, z2 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x1 = Math.min(x1, p.getX());
+            y1 = Math.min(y1, p.getY());
+            z1 = Math.min(z1, p.getZ());
+            x2 = Math.max(x2, p.getX());
+            y2 = Math.max(y2, p.getY());
+            z2 = Math.max(z2, p.getZ());
+        }
+        this.minX = x1;
+        this.minY = y1;
+        this.minZ = z1;
+        this.maxX = x2;
+        this.maxY = y2;
+        this.maxZ = z2;
+    }
+
+    /**
+     * Getter for the lower bound of the box on an axis
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the lower coordinate of the box on the axis
+     */
+    public double getMin(int axis) {
+        return axis == 0 ? minX : axis == 1 ? minY : minZ;
+    }
+
+    /**
+     * Getter for the upper bound of the box on an axis
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the upper coordinate of the box on the axis
+     */
+    public double getMax(int axis) {
+        return axis == 0 ? maxX : axis == 1 ? maxY : maxZ;
+    }
+
+    /**
+     * Returns the center of the box on an axis
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the middle coordinate of the box on the axis
+     */
+    public double getCenter(int axis) {
+        return (getMin(axis) + getMax(axis)) / 2;
+    }
+
+    /**
+     * Returns the axis along which the box is the longest
+     *
+     * @return 0 for x, 1 for y, 2 for z
+     */
+    public int longestAxis() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return dx >= dy && dx >= dz ? 0 : dy >= dz ? 1 : 2;
+    }
+
+    /**
+     * Returns the surface area of the box, used by the surface area heuristic
+     *
+     * @return the surface area of the box
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the smallest box containing both this box and the other box
+     *
+     * @param other the box to unite with
+     * @return new BoundingBox, or this box if the other box is null
+     */
+    public BoundingBox union(BoundingBox other) {
+        if (other == null)
+            return this;
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Checks whether a ray passes through the box before a given distance
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximum distance from the ray's head
+     * @return true if the ray hits the box within the distance, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds the distance at which a ray enters the box (slab test)
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximum distance from the ray's head
+     * @return the entry distance (0 if the ray starts inside the box),
+     * or positive infinity if the ray misses the box within the distance
+     */
+    public double entryDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+
+        // the sign of the direction picks the plane the ray enters each slab through.
+        // A ray parallel to a slab has infinite distances to its planes when it starts outside it,
+        // and NaN (ignored by the comparisons) when it starts on one of them
+        double tNear = 0;
+        double tFar = maxDistance;
+        double t1 = ((ray.getSignX() == 0 ? minX : maxX) - ox) * ray.getInverseX();
+        double t2 = ((ray.getSignX() == 0 ? maxX : minX) - ox) * ray.getInverseX();
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        t1 = ((ray.getSignY() == 0 ? minY : maxY) - oy) * ray.getInverseY();
+        t2 = ((ray.getSignY() == 0 ? maxY : minY) - oy) * ray.getInverseY();
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        t1 = ((ray.getSignZ() == 0 ? minZ : maxZ) - oz) * ray.getInverseZ();
+        t2 = ((ray.getSignZ() == 0 ? maxZ : minZ) - oz) * ray.getInverseZ();
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        // written so that a slab the ray misses (tFar = -infinity, NaN slack) is a miss too
+        return tNear <= tFar + SLACK * Math.max(1, Math.abs(tFar)) ? tNear : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
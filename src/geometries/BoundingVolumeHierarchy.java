@@ -0,0 +1,910 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bounding volume hierarchy over the intersectables of a {@link Geometries} collection.
+ * The tree is built top-down with the binned surface area heuristic (SAH), so that a ray visits
+ * only the nodes whose boxes it passes through - roughly logarithmic in the number of
+ * intersectables. Infinite intersectables (without a bounding box) are kept aside
+ * and are checked for every ray.
+ * The build runs on the common {@link ForkJoinPool}: large subtrees are built as independent
+ * tasks, and the binning of the large top nodes is split between the workers as well.
+ * After the build the tree is flattened into arrays in depth-first order (a node's left child
+ * follows it), so a traversal walks packed memory with a fixed per-thread stack and allocates
+ * nothing per ray.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class BoundingVolumeHierarchy implements Accelerator {
+    /**
+     * Estimated cost of visiting a node, relative to an intersection test
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+    /**
+     * Estimated cost of an intersection test with an intersectable
+     */
+    private static final double INTERSECTION_COST = 1;
+    /**
+     * Maximum amount of intersectables in a leaf
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * Amount of bins along an axis for the SAH split candidates
+     */
+    private static final int BIN_COUNT = 16;
+    /**
+     * Minimal amount of intersectables in a subtree which is built as a task of its own
+     */
+    static final int PARALLEL_BUILD_SIZE = 1024;
+    /**
+     * Minimal amount of intersectables in a node whose binning is split between the workers
+     */
+    static final int PARALLEL_BINNING_SIZE = 16384;
+    /**
+     * Amount of doubles keeping the bounds of a node in the flat layout
+     */
+    static final int BOUNDS_SIZE = 6;
+    /**
+     * Amount of ints keeping the links of a node in the flat layout
+     */
+    static final int LINKS_SIZE = 2;
+    /**
+     * Relative growth of the SAH cost, caused by refitting moved intersectables,
+     * which makes the hierarchy be rebuilt from scratch
+     */
+    private static final double REBUILD_THRESHOLD = 1.5;
+
+    /**
+     * Node of the hierarchy while building - either an inner node with two children
+     * or a leaf with entries
+     */
+    static class Node {
+        /**
+         * Box bounding all the intersectables under the node
+         */
+        final BoundingBox box;
+        /**
+         * Children of an inner node, null for a leaf
+         */
+        Node left, right;
+        /**
+         * Entries of a leaf, null for an inner node
+         */
+        Entry[] entries;
+        /**
+         * Amount of nodes in the subtree of the node
+         */
+        int size = 1;
+
+        /**
+         * Constructor for Node
+         *
+         * @param box the bounding box of the node
+         */
+        Node(BoundingBox box) {
+            this.box = box;
+        }
+    }
+
+    /**
+     * Bounded intersectable (or primitive of a {@link TriangleMesh}) together with its box
+     * and box center, used while building
+     */
+    static class Entry {
+        /**
+         * The bounded intersectable, null for a primitive
+         */
+        final Intersectable item;
+        /**
+         * Index of the primitive, -1 for an intersectable
+         */
+        final int index;
+        /**
+         * Bounding box of the intersectable
+         */
+        final BoundingBox box;
+        /**
+         * Center of the bounding box per axis
+         */
+        final double[] center;
+
+        /**
+         * Constructor for Entry
+         *
+         * @param item the intersectable
+         * @param box  its bounding box
+         */
+        Entry(Intersectable item, BoundingBox box) {
+            this(item, -1, box);
+        }
+
+        /**
+         * Constructor for Entry of a primitive
+         *
+         * @param index the index of the primitive
+         * @param box   its bounding box
+         */
+        Entry(int index, BoundingBox box) {
+            this(null, index, box);
+        }
+
+        /**
+         * Constructor for Entry
+         *
+         * @param item  the intersectable, null for a primitive
+         * @param index the index of the primitive, -1 for an intersectable
+         * @param box   its bounding box
+         */
+        private Entry(Intersectable item, int index, BoundingBox box) {
+            this.item = item;
+            this.index = index;
+            this.box = box;
+            this.center = new double[]{box.getCenter(0), box.getCenter(1), box.getCenter(2)};
+        }
+    }
+
+    /**
+     * Bounds of a range of entries - the box of the entries and the box of their centers
+     */
+    static class RangeBounds {
+        /**
+         * Lower and upper corners of the box bounding the entries
+         */
+        final double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        final double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        /**
+         * Lower and upper corners of the box bounding the centers of the entries
+         */
+        final double[] centerMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        final double[] centerMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        /**
+         * Adds the entries[from, to) into the bounds
+         *
+         * @param entries the entries
+         * @param from    first entry (inclusive)
+         * @param to      last entry (exclusive)
+         * @return the bounds object itself
+         */
+        RangeBounds add(Entry[] entries, int from, int to) {
+            for (int i = from; i < to; ++i)
+                for (int axis = 0; axis < 3; ++axis) {
+                    min[axis] = Math.min(min[axis], entries[i].box.getMin(axis));
+                    max[axis] = Math.max(max[axis], entries[i].box.getMax(axis));
+                    centerMin[axis] = Math.min(centerMin[axis], entries[i].center[axis]);
+                    centerMax[axis] = Math.max(centerMax[axis], entries[i].center[axis]);
+                }
+            return this;
+        }
+
+        /**
+         * Merges other bounds into the bounds
+         *
+         * @param other the other bounds
+         * @return the bounds object itself
+         */
+        RangeBounds merge(RangeBounds other) {
+            for (int axis = 0; axis < 3; ++axis) {
+                min[axis] = Math.min(min[axis], other.min[axis]);
+                max[axis] = Math.max(max[axis], other.max[axis]);
+                centerMin[axis] = Math.min(centerMin[axis], other.centerMin[axis]);
+                centerMax[axis] = Math.max(centerMax[axis], other.centerMax[axis]);
+            }
+            return this;
+        }
+
+        /**
+         * Finds the bin of an entry along an axis
+         *
+         * @param entry the entry
+         * @param axis  0 for x, 1 for y, 2 for z
+         * @return the bin index, between 0 and {@link #BIN_COUNT} - 1
+         */
+        int binOf(Entry entry, int axis) {
+            double extent = centerMax[axis] - centerMin[axis];
+            if (extent <= 0)
+                return 0;
+            int bin = (int) ((entry.center[axis] - centerMin[axis]) / extent * BIN_COUNT);
+            return Math.min(BIN_COUNT - 1, bin);
+        }
+    }
+
+    /**
+     * SAH bins of a range of entries along the three axes - the amount of entries and the box of
+     * the entries whose centers fall into each bin
+     */
+    private static class Bins {
+        /**
+         * Amount of entries per axis and bin
+         */
+        final int[] counts = new int[3 * BIN_COUNT];
+        /**
+         * Bounds per axis and bin: min x, y, z and max x, y, z
+         */
+        final double[] boxes = new double[3 * BIN_COUNT * BOUNDS_SIZE];
+
+        /**
+         * Constructor for empty Bins
+         */
+        Bins() {
+            for (int i = 0; i < boxes.length; i += BOUNDS_SIZE) {
+                Arrays.fill(boxes, i, i + 3, Double.POSITIVE_INFINITY);
+                Arrays.fill(boxes, i + 3, i + BOUNDS_SIZE, Double.NEGATIVE_INFINITY);
+            }
+        }
+
+        /**
+         * Adds the entries[from, to) into the bins
+         *
+         * @param entries the entries
+         * @param from    first entry (inclusive)
+         * @param to      last entry (exclusive)
+         * @param range   the bounds of the whole node, which the bins divide
+         * @return the bins object itself
+         */
+        Bins add(Entry[] entries, int from, int to, RangeBounds range) {
+            for (int i = from; i < to; ++i)
+                for (int axis = 0; axis < 3; ++axis) {
+                    int bin = axis * BIN_COUNT + range.binOf(entries[i], axis);
+                    ++counts[bin];
+                    int b = bin * BOUNDS_SIZE;
+                    for (int k = 0; k < 3; ++k) {
+                        boxes[b + k] = Math.min(boxes[b + k], entries[i].box.getMin(k));
+                        boxes[b + 3 + k] = Math.max(boxes[b + 3 + k], entries[i].box.getMax(k));
+                    }
+                }
+            return this;
+        }
+
+        /**
+         * Grows the box of a sweep over the bins by a bin
+         *
+         * @param sweep the box of the sweep: min x, y, z and max x, y, z
+         * @param bin   index of the bin, including its axis
+         * @return amount of entries in the bin
+         */
+        int grow(double[] sweep, int bin) {
+            int b = bin * BOUNDS_SIZE;
+            for (int k = 0; k < 3; ++k) {
+                sweep[k] = Math.min(sweep[k], boxes[b + k]);
+                sweep[3 + k] = Math.max(sweep[3 + k], boxes[b + 3 + k]);
+            }
+            return counts[bin];
+        }
+
+        /**
+         * Merges other bins into the bins
+         *
+         * @param other the other bins
+         * @return the bins object itself
+         */
+        Bins merge(Bins other) {
+            for (int i = 0; i < counts.length; ++i)
+                counts[i] += other.counts[i];
+            for (int i = 0; i < boxes.length; i += BOUNDS_SIZE)
+                for (int k = 0; k < 3; ++k) {
+                    boxes[i + k] = Math.min(boxes[i + k], other.boxes[i + k]);
+                    boxes[i + 3 + k] = Math.max(boxes[i + 3 + k], other.boxes[i + 3 + k]);
+                }
+            return this;
+        }
+    }
+
+    /**
+     * Task computing the bounds of a large range of entries, split between the workers
+     */
+    @SuppressWarnings("serial")
+    static class BoundsTask extends RecursiveTask<RangeBounds> {
+        /**
+         * The entries and the range [from, to) of the task
+         */
+        private final Entry[] entries;
+        private final int from, to;
+
+        /**
+         * Constructor for BoundsTask
+         *
+         * @param entries the entries
+         * @param from    first entry (inclusive)
+         * @param to      last entry (exclusive)
+         */
+        BoundsTask(Entry[] entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RangeBounds compute() {
+            if (to - from <= PARALLEL_BINNING_SIZE)
+                return new RangeBounds().add(entries, from, to);
+            int mid = (from + to) >>> 1;
+            BoundsTask left = new BoundsTask(entries, from, mid);
+            left.fork();
+            RangeBounds right = new BoundsTask(entries, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Task binning a large range of entries, split between the workers
+     */
+    @SuppressWarnings("serial")
+    private static class BinningTask extends RecursiveTask<Bins> {
+        /**
+         * The entries and the range [from, to) of the task
+         */
+        private final Entry[] entries;
+        private final int from, to;
+        /**
+         * The bounds of the whole node, which the bins divide
+         */
+        private final RangeBounds range;
+
+        /**
+         * Constructor for BinningTask
+         *
+         * @param entries the entries
+         * @param from    first entry (inclusive)
+         * @param to      last entry (exclusive)
+         * @param range   the bounds of the whole node
+         */
+        BinningTask(Entry[] entries, int from, int to, RangeBounds range) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.range = range;
+        }
+
+        @Override
+        protected Bins compute() {
+            if (to - from <= PARALLEL_BINNING_SIZE)
+                return new Bins().add(entries, from, to, range);
+            int mid = (from + to) >>> 1;
+            BinningTask left = new BinningTask(entries, from, mid, range);
+            left.fork();
+            Bins right = new BinningTask(entries, mid, to, range).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Task building the subtree over a range of entries
+     */
+    @SuppressWarnings("serial")
+    private static class BuildTask extends RecursiveTask<Node> {
+        /**
+         * The entries and the range [from, to) of the subtree
+         */
+        private final Entry[] entries;
+        private final int from, to;
+
+        /**
+         * Constructor for BuildTask
+         *
+         * @param entries the entries, reordered in place while building
+         * @param from    first entry of the subtree (inclusive)
+         * @param to      last entry of the subtree (exclusive)
+         */
+        BuildTask(Entry[] entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            return build(entries, from, to);
+        }
+    }
+
+    /**
+     * Per thread stack of the nodes waiting to be visited during a traversal
+     */
+    static class TraversalStack {
+        /**
+         * Indices of the waiting nodes
+         */
+        final int[] nodes;
+        /**
+         * Distances at which the ray enters the waiting nodes
+         */
+        final double[] distances;
+
+        /**
+         * Constructor for TraversalStack
+         *
+         * @param size maximum amount of waiting nodes
+         */
+        TraversalStack(int size) {
+            this.nodes = new int[size];
+            this.distances = new double[size];
+        }
+    }
+
+    /**
+     * Bounds of the nodes: min x, y, z and max x, y, z of each node
+     */
+    private final double[] bounds;
+    /**
+     * Links of the nodes: for an inner node the index of its right child and 0,
+     * for a leaf the index of its first intersectable and the amount of its intersectables
+     */
+    private final int[] links;
+    /**
+     * Bounded intersectables, ordered so each leaf references a consecutive range
+     */
+    private final Intersectable[] items;
+    /**
+     * Per thread traversal stack, deep enough for the hierarchy
+     */
+    private final ThreadLocal<TraversalStack> stacks;
+    /**
+     * Intersectables without a bounding box
+     */
+    private final List<Intersectable> unbounded = new ArrayList<>();
+    /**
+     * Whether the hierarchy was built as a linear BVH
+     */
+    private final boolean linear;
+    /**
+     * SAH cost of the hierarchy right after it was built
+     */
+    private final double builtSahCost;
+    /**
+     * Build (or last refit) time and quality of the hierarchy
+     */
+    private BvhStatistics statistics;
+
+    /**
+     * Builds the hierarchy over the given intersectables with the surface area heuristic
+     *
+     * @param intersectables the intersectables to arrange in the hierarchy
+     */
+    BoundingVolumeHierarchy(List<Intersectable> intersectables) {
+        this(intersectables, false);
+    }
+
+    /**
+     * Builds the hierarchy over the given intersectables
+     *
+     * @param intersectables the intersectables to arrange in the hierarchy
+     * @param linear         true to build a linear BVH ordered by Morton codes ({@link LinearBvhBuilder}),
+     *                       which is much faster to build but slower to traverse,
+     *                       false to build with the surface area heuristic
+     */
+    BoundingVolumeHierarchy(List<Intersectable> intersectables, boolean linear) {
+        long start = System.nanoTime();
+        this.linear = linear;
+        List<Entry> entries = new ArrayList<>(intersectables.size());
+        for (Intersectable item : intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null)
+                unbounded.add(item);
+            else
+                entries.add(new Entry(item, box));
+        }
+        Node root = buildTree(entries.toArray(new Entry[0]), linear);
+
+        int nodeCount = root == null ? 0 : root.size;
+        this.bounds = new double[nodeCount * BOUNDS_SIZE];
+        this.links = new int[nodeCount * LINKS_SIZE];
+        this.items = new Intersectable[entries.size()];
+        if (root != null)
+            flatten(root, 0, 0);
+        this.statistics = calcStatistics(System.nanoTime() - start);
+        this.builtSahCost = statistics.getSahCost();
+        int depth = statistics.getDepth();
+        this.stacks = ThreadLocal.withInitial(() -> new TraversalStack(depth + 1));
+    }
+
+    /**
+     * Builds the tree of a hierarchy over entries, on the common fork-join pool
+     *
+     * @param entries the entries, reordered in place while building
+     * @param linear  true to build a linear BVH ordered by Morton codes,
+     *                false to build with the surface area heuristic
+     * @return the root of the tree, null if there are no entries
+     */
+    static Node buildTree(Entry[] entries, boolean linear) {
+        if (entries.length == 0)
+            return null;
+        return linear ? LinearBvhBuilder.build(entries)
+                : ForkJoinPool.commonPool().invoke(new BuildTask(entries, 0, entries.length));
+    }
+
+    /**
+     * Getter for the build time and quality of the hierarchy
+     *
+     * @return the statistics of the hierarchy
+     */
+    BvhStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Refits the hierarchy to the current boxes of its intersectables, keeping its topology:
+     * the bounds of the nodes are recalculated bottom-up (children follow their parents in the
+     * flat layout, so a single backward pass is enough). When the moves degraded the tree too much,
+     * or an intersectable lost its box, a new hierarchy is built instead.
+     *
+     * @param intersectables the intersectables of the collection
+     * @return this hierarchy refitted, or a new hierarchy
+     */
+    @Override
+    public Accelerator refit(List<Intersectable> intersectables) {
+        long start = System.nanoTime();
+        for (int node = links.length / LINKS_SIZE - 1; node >= 0; --node) {
+            int b = node * BOUNDS_SIZE;
+            Arrays.fill(bounds, b, b + 3, Double.POSITIVE_INFINITY);
+            Arrays.fill(bounds, b + 3, b + BOUNDS_SIZE, Double.NEGATIVE_INFINITY);
+            int first = links[node * LINKS_SIZE], count = links[node * LINKS_SIZE + 1];
+            if (count > 0)
+                for (int i = first; i < first + count; ++i) {
+                    BoundingBox box = items[i].getBoundingBox();
+                    if (box == null)
+                        return new BoundingVolumeHierarchy(intersectables, linear);
+                    for (int axis = 0; axis < 3; ++axis) {
+                        bounds[b + axis] = Math.min(bounds[b + axis], box.getMin(axis));
+                        bounds[b + 3 + axis] = Math.max(bounds[b + 3 + axis], box.getMax(axis));
+                    }
+                }
+            else {
+                growBounds(b, (node + 1) * BOUNDS_SIZE);
+                growBounds(b, first * BOUNDS_SIZE);
+            }
+        }
+
+        BvhStatistics refitted = calcStatistics(System.nanoTime() - start);
+        if (refitted.getSahCost() > builtSahCost * REBUILD_THRESHOLD)
+            return new BoundingVolumeHierarchy(intersectables, linear);
+        this.statistics = refitted;
+        return this;
+    }
+
+    /**
+     * Grows the bounds of a node to contain the bounds of its child
+     *
+     * @param node  offset of the node's bounds
+     * @param child offset of the child's bounds
+     */
+    private void growBounds(int node, int child) {
+        for (int k = 0; k < 3; ++k) {
+            bounds[node + k] = Math.min(bounds[node + k], bounds[child + k]);
+            bounds[node + 3 + k] = Math.max(bounds[node + 3 + k], bounds[child + 3 + k]);
+        }
+    }
+
+    /**
+     * Builds the subtree over entries[from, to). Runs inside the fork-join pool,
+     * and forks the building of large children as tasks of their own.
+     *
+     * @param entries the entries, reordered in place while building
+     * @param from    first entry of the subtree (inclusive)
+     * @param to      last entry of the subtree (exclusive)
+     * @return the root of the subtree
+     */
+    private static Node build(Entry[] entries, int from, int to) {
+        int n = to - from;
+        boolean parallel = n > PARALLEL_BINNING_SIZE;
+        RangeBounds range = parallel ? new BoundsTask(entries, from, to).invoke()
+                : new RangeBounds().add(entries, from, to);
+        BoundingBox box = new BoundingBox(range.min[0], range.min[1], range.min[2],
+                range.max[0], range.max[1], range.max[2]);
+        Node node = new Node(box);
+        if (n == 1)
+            return leaf(node, entries, from, to);
+
+        // find the cheapest split between the bins of all the axes
+        Bins bins = parallel ? new BinningTask(entries, from, to, range).invoke()
+                : new Bins().add(entries, from, to, range);
+        double parentArea = box.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestBin = -1;
+        double[] rightAreas = new double[BIN_COUNT];
+        int[] rightCounts = new int[BIN_COUNT];
+        double[] sweep = new double[BOUNDS_SIZE];
+        for (int axis = 0; axis < 3; ++axis) {
+            if (range.centerMax[axis] <= range.centerMin[axis])
+                continue;
+            int first = axis * BIN_COUNT;
+
+            resetSweep(sweep);
+            int count = 0;
+            for (int bin = BIN_COUNT - 1; bin > 0; --bin) {
+                count += bins.grow(sweep, first + bin);
+                rightAreas[bin] = count == 0 ? 0 : sweepArea(sweep);
+                rightCounts[bin] = count;
+            }
+            resetSweep(sweep);
+            count = 0;
+            for (int bin = 1; bin < BIN_COUNT; ++bin) {
+                count += bins.grow(sweep, first + bin - 1);
+                if (count == 0 || rightCounts[bin] == 0)
+                    continue;
+                double cost = sahCost(parentArea, sweepArea(sweep), count, rightAreas[bin], rightCounts[bin]);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        // keep a leaf when splitting is not worth it
+        if (n <= MAX_LEAF_SIZE && n * INTERSECTION_COST <= bestCost)
+            return leaf(node, entries, from, to);
+
+        int mid;
+        if (bestAxis < 0)
+            // all the centers are at the same place - any split is as good
+            mid = from + n / 2;
+        else {
+            // partition in place - the entries of the lower bins go to the left child
+            mid = from;
+            for (int j = to - 1; mid <= j; )
+                if (range.binOf(entries[mid], bestAxis) < bestBin)
+                    ++mid;
+                else {
+                    Entry temp = entries[mid];
+                    entries[mid] = entries[j];
+                    entries[j--] = temp;
+                }
+        }
+
+        if (n >= PARALLEL_BUILD_SIZE) {
+            BuildTask leftTask = new BuildTask(entries, from, mid);
+            leftTask.fork();
+            node.right = build(entries, mid, to);
+            node.left = leftTask.join();
+        } else {
+            node.left = build(entries, from, mid);
+            node.right = build(entries, mid, to);
+        }
+        node.size = 1 + node.left.size + node.right.size;
+        return node;
+    }
+
+    /**
+     * Makes a node a leaf of entries[from, to)
+     *
+     * @param node    the node
+     * @param entries the entries
+     * @param from    first entry of the leaf (inclusive)
+     * @param to      last entry of the leaf (exclusive)
+     * @return the node
+     */
+    private static Node leaf(Node node, Entry[] entries, int from, int to) {
+        node.entries = Arrays.copyOfRange(entries, from, to);
+        return node;
+    }
+
+    /**
+     * Empties the box of a sweep over the bins
+     *
+     * @param sweep the box of the sweep: min x, y, z and max x, y, z
+     */
+    private static void resetSweep(double[] sweep) {
+        Arrays.fill(sweep, 0, 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(sweep, 3, BOUNDS_SIZE, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Surface area of the box of a sweep over the bins
+     *
+     * @param sweep the box of the sweep: min x, y, z and max x, y, z
+     * @return the surface area of the box
+     */
+    private static double sweepArea(double[] sweep) {
+        double dx = sweep[3] - sweep[0], dy = sweep[4] - sweep[1], dz = sweep[5] - sweep[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Estimated cost of splitting a node into two children according to the surface area heuristic
+     *
+     * @param parentArea surface area of the node
+     * @param leftArea   surface area of the left child
+     * @param leftCount  amount of intersectables in the left child
+     * @param rightArea  surface area of the right child
+     * @param rightCount amount of intersectables in the right child
+     * @return the expected cost of a ray passing through the node
+     */
+    private static double sahCost(double parentArea, double leftArea, int leftCount,
+                                  double rightArea, int rightCount) {
+        // flat nodes (e.g. a single axis-aligned polygon) have no area - cost by count only
+        if (parentArea <= 0)
+            return TRAVERSAL_COST + (leftCount + rightCount) * INTERSECTION_COST;
+        return TRAVERSAL_COST
+                + (leftArea * leftCount + rightArea * rightCount) / parentArea * INTERSECTION_COST;
+    }
+
+    /**
+     * Writes a subtree into the flat layout, in depth-first order
+     *
+     * @param node      the root of the subtree
+     * @param index     index of the root in the flat layout
+     * @param firstItem index of the first free slot in the items array
+     * @return index of the first free slot in the items array after the subtree
+     */
+    private int flatten(Node node, int index, int firstItem) {
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[index * BOUNDS_SIZE + axis] = node.box.getMin(axis);
+            bounds[index * BOUNDS_SIZE + 3 + axis] = node.box.getMax(axis);
+        }
+        if (node.entries != null) {
+            links[index * LINKS_SIZE] = firstItem;
+            links[index * LINKS_SIZE + 1] = node.entries.length;
+            for (Entry entry : node.entries)
+                items[firstItem++] = entry.item;
+            return firstItem;
+        }
+        // the left child follows its parent, the right child follows the left subtree
+        int right = index + 1 + node.left.size;
+        links[index * LINKS_SIZE] = right;
+        firstItem = flatten(node.left, index + 1, firstItem);
+        return flatten(node.right, right, firstItem);
+    }
+
+    /**
+     * Measures the quality of the flat hierarchy
+     *
+     * @param buildTime the time the build took, in nanoseconds
+     * @return the statistics of the hierarchy
+     */
+    private BvhStatistics calcStatistics(long buildTime) {
+        int nodeCount = links.length / LINKS_SIZE;
+        if (nodeCount == 0)
+            return new BvhStatistics(buildTime, 0, 0, 0, 0, 0, 0, 0);
+
+        // children follow their parents, so the depths are known in a single forward pass
+        int[] depths = new int[nodeCount];
+        depths[0] = 1;
+        double rootArea = nodeArea(0);
+        double sahCost = 0;
+        int leafCount = 0, depth = 0, minLeafSize = Integer.MAX_VALUE, maxLeafSize = 0;
+        for (int node = 0; node < nodeCount; ++node) {
+            double areaRatio = rootArea <= 0 ? 1 : nodeArea(node) / rootArea;
+            int count = links[node * LINKS_SIZE + 1];
+            if (count > 0) {
+                sahCost += areaRatio * count * INTERSECTION_COST;
+                ++leafCount;
+                depth = Math.max(depth, depths[node]);
+                minLeafSize = Math.min(minLeafSize, count);
+                maxLeafSize = Math.max(maxLeafSize, count);
+            } else {
+                sahCost += areaRatio * TRAVERSAL_COST;
+                depths[node + 1] = depths[node] + 1;
+                depths[links[node * LINKS_SIZE]] = depths[node] + 1;
+            }
+        }
+        return new BvhStatistics(buildTime, nodeCount, leafCount, depth, items.length,
+                minLeafSize, maxLeafSize, sahCost);
+    }
+
+    /**
+     * Surface area of the box of a node in the flat layout
+     *
+     * @param node index of the node
+     * @return the surface area of the box
+     */
+    private double nodeArea(int node) {
+        int b = node * BOUNDS_SIZE;
+        double dx = bounds[b + 3] - bounds[b], dy = bounds[b + 4] - bounds[b + 1], dz = bounds[b + 5] - bounds[b + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    @Override
+    public void traverse(RayQuery query) {
+        for (Intersectable item : unbounded) {
+            query.visit(item);
+            if (query.isFinished())
+                return;
+        }
+        if (items.length == 0)
+            return;
+
+        Ray ray = query.ray;
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+        int sx = ray.getSignX(), sy = ray.getSignY(), sz = ray.getSignZ();
+
+        double tEnter = entryDistance(bounds, 0, ox, oy, oz, ix, iy, iz, sx, sy, sz, query.maxDistance);
+        if (tEnter == Double.POSITIVE_INFINITY)
+            return;
+
+        TraversalStack stack = stacks.get();
+        int top = 0;
+        int node = 0;
+        while (true) {
+            int count = links[node * LINKS_SIZE + 1];
+            if (count > 0) {
+                int first = links[node * LINKS_SIZE];
+                for (int i = first; i < first + count; ++i) {
+                    query.visit(items[i]);
+                    if (query.isFinished())
+                        return;
+                }
+                node = -1;
+            } else {
+                // visit the nearer child first, the farther one is waiting on the stack
+                int left = node + 1, right = links[node * LINKS_SIZE];
+                double tLeft = entryDistance(bounds, left, ox, oy, oz, ix, iy, iz, sx, sy, sz, query.maxDistance);
+                double tRight = entryDistance(bounds, right, ox, oy, oz, ix, iy, iz, sx, sy, sz, query.maxDistance);
+                int near = tLeft <= tRight ? left : right;
+                int far = tLeft <= tRight ? right : left;
+                double tNear = Math.min(tLeft, tRight), tFar = Math.max(tLeft, tRight);
+                if (tNear == Double.POSITIVE_INFINITY)
+                    node = -1;
+                else {
+                    if (tFar != Double.POSITIVE_INFINITY) {
+                        stack.nodes[top] = far;
+                        stack.distances[top++] = tFar;
+                    }
+                    node = near;
+                }
+            }
+
+            // pop the next waiting node, which may start beyond the result found so far
+            while (node < 0) {
+                if (top == 0)
+                    return;
+                double t = stack.distances[--top];
+                if (!query.isFinished(t) && t <= query.maxDistance)
+                    node = stack.nodes[top];
+            }
+        }
+    }
+
+    /**
+     * Finds the distance at which a ray enters the box of a node (slab test),
+     * like {@link BoundingBox#entryDistance(Ray, double)} over the flat layout
+     *
+     * @param bounds      bounds of the nodes in the flat layout
+     * @param node        index of the node
+     * @param ox          x coordinate of the ray's head
+     * @param oy          y coordinate of the ray's head
+     * @param oz          z coordinate of the ray's head
+     * @param ix          reciprocal of the x coordinate of the ray's direction
+     * @param iy          reciprocal of the y coordinate of the ray's direction
+     * @param iz          reciprocal of the z coordinate of the ray's direction
+     * @param sx          1 if the x coordinate of the ray's direction is negative, else 0
+     * @param sy          1 if the y coordinate of the ray's direction is negative, else 0
+     * @param sz          1 if the z coordinate of the ray's direction is negative, else 0
+     * @param maxDistance the maximum distance from the ray's head
+     * @return the entry distance (0 if the ray starts inside the box),
+     * or positive infinity if the ray misses the box within the distance
+     */
+    static double entryDistance(double[] bounds, int node, double ox, double oy, double oz,
+                                double ix, double iy, double iz, int sx, int sy, int sz, double maxDistance) {
+        // the minimum of an axis is at b + axis and its maximum 3 further,
+        // the sign of the direction picks the plane the ray enters the slab through
+        int b = node * BOUNDS_SIZE;
+        double tNear = 0;
+        double tFar = maxDistance;
+        double t1 = (bounds[b + sx * 3] - ox) * ix;
+        double t2 = (bounds[b + 3 - sx * 3] - ox) * ix;
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        t1 = (bounds[b + 1 + sy * 3] - oy) * iy;
+        t2 = (bounds[b + 4 - sy * 3] - oy) * iy;
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        t1 = (bounds[b + 2 + sz * 3] - oz) * iz;
+        t2 = (bounds[b + 5 - sz * 3] - oz) * iz;
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        // written so that a slab the ray misses (tFar = -infinity, NaN slack) is a miss too
+        return tNear <= tFar + BoundingBox.SLACK * Math.max(1, Math.abs(tFar)) ? tNear : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,150 @@
+package geometries;
+
+/**
+ * Build time and quality of a bounding volume hierarchy, as reported by
+ * {@link Geometries#getBvhStatistics()}
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class BvhStatistics {
+    /**
+     * Time the build took, in nanoseconds
+     */
+    private final long buildTime;
+    /**
+     * Amount of nodes in the hierarchy
+     */
+    private final int nodeCount;
+    /**
+     * Amount of leaves in the hierarchy
+     */
+    private final int leafCount;
+    /**
+     * Amount of levels in the hierarchy
+     */
+    private final int depth;
+    /**
+     * Amount of intersectables in all the leaves
+     */
+    private final int itemCount;
+    /**
+     * Amount of intersectables in the smallest leaf
+     */
+    private final int minLeafSize;
+    /**
+     * Amount of intersectables in the largest leaf
+     */
+    private final int maxLeafSize;
+    /**
+     * Expected cost of a ray passing through the hierarchy, according to the surface area heuristic
+     */
+    private final double sahCost;
+
+    /**
+     * Constructor for BvhStatistics
+     *
+     * @param buildTime   time the build took, in nanoseconds
+     * @param nodeCount   amount of nodes in the hierarchy
+     * @param leafCount   amount of leaves in the hierarchy
+     * @param depth       amount of levels in the hierarchy
+     * @param itemCount   amount of intersectables in all the leaves
+     * @param minLeafSize amount of intersectables in the smallest leaf
+     * @param maxLeafSize amount of intersectables in the largest leaf
+     * @param sahCost     expected cost of a ray passing through the hierarchy
+     */
+    BvhStatistics(long buildTime, int nodeCount, int leafCount, int depth, int itemCount,
+                  int minLeafSize, int maxLeafSize, double sahCost) {
+        this.buildTime = buildTime;
+        this.nodeCount = nodeCount;
+        this.leafCount = leafCount;
+        this.depth = depth;
+        this.itemCount = itemCount;
+        this.minLeafSize = minLeafSize;
+        this.maxLeafSize = maxLeafSize;
+        this.sahCost = sahCost;
+    }
+
+    /**
+     * Getter for the build time
+     *
+     * @return time the build took, in nanoseconds
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * Getter for the node count
+     *
+     * @return amount of nodes in the hierarchy
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Getter for the leaf count
+     *
+     * @return amount of leaves in the hierarchy
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Getter for the depth
+     *
+     * @return amount of levels in the hierarchy
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Getter for the smallest leaf size
+     *
+     * @return amount of intersectables in the smallest leaf
+     */
+    public int getMinLeafSize() {
+        return minLeafSize;
+    }
+
+    /**
+     * Getter for the largest leaf size
+     *
+     * @return amount of intersectables in the largest leaf
+     */
+    public int getMaxLeafSize() {
+        return maxLeafSize;
+    }
+
+    /**
+     * Returns the average leaf size
+     *
+     * @return average amount of intersectables in a leaf
+     */
+    public double getAverageLeafSize() {
+        return leafCount == 0 ? 0 : (double) itemCount / leafCount;
+    }
+
+    /**
+     * Getter for the SAH cost
+     *
+     * @return expected cost of a ray passing through the hierarchy, relative to a single intersection test
+     */
+    public double getSahCost() {
+        return sahCost;
+    }
+
+    @Override
+    public String toString() {
+        return "BvhStatistics{" +
+                "buildTime=" + buildTime / 1e6 + "ms" +
+                ", nodes=" + nodeCount +
+                ", leaves=" + leafCount +
+                ", depth=" + depth +
+                ", leafSize=" + minLeafSize + ".." + maxLeafSize + " (average " + getAverageLeafSize() + ")" +
+                ", sahCost=" + sahCost +
+                '}';
+    }
+}
@@ -7,6 +7,7 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Class representing a Cylinder
@@ -19,14 +20,6 @@ public class Cylinder extends Tube {
      * Height of Cylinder.
      */
     private final double height;
-    /**
-     * Bottom base of Cylinder.
-     */
-    private final Plane bottomBase;
-    /**
-     * Upper base of Cylinder.
-     */
-    private final Plane upperBase;
     /**
      * Center Point of bottom base of Cylinder.
      */
@@ -53,8 +46,6 @@ public class Cylinder extends Tube {
         this.va = this.axisRay.getDir();
         this.bottomCenter = this.axisRay.getP0();
         this.upperCenter = this.axisRay.getPoint(this.height);
-        this.bottomBase = new Plane(this.bottomCenter, this.va);
-        this.upperBase = new Plane(this.upperCenter, this.va);
     }
 
     /**
@@ -103,6 +94,21 @@ public class Cylinder extends Tube {
         return v.normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        // a base disc spreads on each axis by r*sqrt(1 - va[axis]^2) around its center
+        double ex = radius * Math.sqrt(Math.max(0, 1 - va.getX() * va.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - va.getY() * va.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - va.getZ() * va.getZ()));
+        return new BoundingBox(
+                Math.min(bottomCenter.getX(), upperCenter.getX()) - ex,
+                Math.min(bottomCenter.getY(), upperCenter.getY()) - ey,
+                Math.min(bottomCenter.getZ(), upperCenter.getZ()) - ez,
+                Math.max(bottomCenter.getX(), upperCenter.getX()) + ex,
+                Math.max(bottomCenter.getY(), upperCenter.getY()) + ey,
+                Math.max(bottomCenter.getZ(), upperCenter.getZ()) + ez);
+    }
+
     @Override
     public String toString() {
         return "Cylinder{" +
@@ -113,60 +119,125 @@ public class Cylinder extends Tube {
     }
 
     /**
-     * Helper function to check whether an intersection Point calculated for infinite cylinder
-     * is between the bases of the Cylinder or outside it.
+     * Finds the closest intersection of a ray with the capped cylinder beyond a distance, in a single
+     * pass over the ray parameter t: the caps are crossed where the height along the axis reaches the
+     * bases, and the side is the quadric of the tube, kept only strictly between the bases.
+     * Nothing is allocated.
      *
-     * @param p Intersection Point.
-     * @return the GeoPoint for the cylinder with the p point if it is on the Cylinder, null otherwise.
+     * @param ray         The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param minDistance The distance beyond which the intersection is looked for.
+     * @return the distance of the intersection, or positive infinity if there is none
      */
-    private GeoPoint checkIntersection(Point p) {
-        if (p == null) return null;
-        return alignZero(this.va.dotProduct(p.subtract(this.bottomCenter))) > 0
-                && alignZero(this.va.dotProduct(p.subtract(this.upperCenter))) < 0
-                ? new GeoPoint(this, p) : null;
+    private double intersect(Ray ray, double maxDistance, double minDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double ax = va.getX(), ay = va.getY(), az = va.getZ();
+        // delP = p0-pa
+        double px = p0.getX() - bottomCenter.getX(), py = p0.getY() - bottomCenter.getY(),
+                pz = p0.getZ() - bottomCenter.getZ();
+
+        // the height of the ray along the axis is h(t) = hP0 + t * vva
+        double vva = vx * ax + vy * ay + vz * az;
+        double hP0 = px * ax + py * ay + pz * az;
+        // the parts of the direction and of delP orthogonal to the axis: v-(v,va)va and delP-(delP,va)va
+        double ux = vx, uy = vy, uz = vz;
+        if (!isZero(vva)) {
+            ux -= ax * vva;
+            uy -= ay * vva;
+            uz -= az * vva;
+        }
+        double wx = px, wy = py, wz = pz;
+        if (!isZero(hP0)) {
+            wx -= ax * hP0;
+            wy -= ay * hP0;
+            wz -= az * hP0;
+        }
+        double a = ux * ux + uy * uy + uz * uz;
+        double b = 2 * (ux * wx + uy * wy + uz * wz);
+        double c = wx * wx + wy * wy + wz * wz - sqrRadius;
+
+        double closest = Double.POSITIVE_INFINITY;
+
+        // caps - crossing a base strictly inside its disc
+        if (!isZero(vva)) {
+            double tBottom = alignZero(-hP0 / vva);
+            double tUpper = alignZero((height - hP0) / vva);
+            if (isHit(tBottom, maxDistance, minDistance) && alignZero((a * tBottom + b) * tBottom + c) < 0)
+                closest = tBottom;
+            if (isHit(tUpper, maxDistance, minDistance) && tUpper < closest
+                    && alignZero((a * tUpper + b) * tUpper + c) < 0)
+                closest = tUpper;
+        }
+
+        // side - the roots of the tube's quadric a*t^2 + b*t + c = 0 strictly between the bases
+        if (isZero(a))
+            return closest;
+        double discriminator = alignZero(b * b - 4 * a * c);
+        if (discriminator <= 0)
+            return closest;
+        double sqrtDiscriminator = Math.sqrt(discriminator);
+        double t1 = alignZero(-b - sqrtDiscriminator) / (2 * a);
+        double t2 = alignZero(-b + sqrtDiscriminator) / (2 * a);
+        // t1 <= t2, so the second root counts only when the first one doesn't
+        if (t1 < closest && isHit(t1, maxDistance, minDistance) && isBetweenBases(hP0 + t1 * vva))
+            return t1;
+        if (t2 < closest && isHit(t2, maxDistance, minDistance) && isBetweenBases(hP0 + t2 * vva))
+            return t2;
+        return closest;
     }
 
     /**
-     * Helper function to find an intersection Point with Cylinder's base
+     * Checks whether a height along the axis is strictly between the bases
      *
-     * @param base   Base of Cylinder.
-     * @param ray    Ray to find intersection with.
-     * @param center Center Point of Cylinder's base.
-     * @return GeoPoint with the cylinder and the point on a base.
+     * @param h the height above the bottom base
+     * @return true if the height is strictly between the bases
      */
-    private GeoPoint baseIntersection(Plane base, Ray ray, Point center) {
-        List<GeoPoint> lst = base.findGeoIntersections(ray); //intersection Points with Plane
-        if (lst == null) return null;
-        Point p = lst.get(0).point;
-        return alignZero(p.distanceSquared(center) - this.sqrRadius) < 0 ? new GeoPoint(this, p) : null;
+    private boolean isBetweenBases(double h) {
+        return alignZero(h) > 0 && alignZero(h - height) < 0;
+    }
+
+    /**
+     * Checks whether a distance along a ray is in range
+     *
+     * @param t           the distance
+     * @param maxDistance the maximum distance from the source of the ray
+     * @param minDistance the distance which must be passed
+     * @return true if the distance is positive, beyond minDistance and within maxDistance
+     */
+    private static boolean isHit(double t, double maxDistance, double minDistance) {
+        return t > 0 && alignZero(t - minDistance) > 0 && alignZero(t - maxDistance) <= 0;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        //Step 1 - finding intersection Points with bases:
-        GeoPoint gp1 = baseIntersection(this.bottomBase, ray, this.bottomCenter); //intersection Point with bottom base
-        GeoPoint gp2 = baseIntersection(this.upperBase, ray, this.upperCenter); //intersection Point with upper base
-
-        if (gp1 != null && gp2 != null) {
-            double gp1D = gp1.point.distance(ray.getP0());
-            double gp2D = gp2.point.distance(ray.getP0());
-
-            return (gp1D <= maxDistance && gp2D <= maxDistance) ? twoPoints(ray, gp1, gp2) :
-                    (gp1D <= maxDistance) ? List.of(gp1) : (gp2D <= maxDistance) ? List.of(gp2) : null;
-        }
+        double t1 = intersect(ray, maxDistance, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return null;
+        // a ray crosses the cylinder at most twice
+        double t2 = intersect(ray, maxDistance, t1);
+        GeoPoint gp1 = new GeoPoint(this, ray.getPoint(t1));
+        return t2 == Double.POSITIVE_INFINITY ? List.of(gp1) : List.of(gp1, new GeoPoint(this, ray.getPoint(t2)));
+    }
 
-        GeoPoint basePoint = gp1 != null ? gp1 : gp2;
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, 0);
+        return t == Double.POSITIVE_INFINITY ? null : new GeoPoint(this, ray.getPoint(t));
+    }
 
-        //Step 2 - checking if intersection Points with Tube are on Cylinder itself:
-        List<GeoPoint> lst = super.findGeoIntersectionsHelper(ray, maxDistance); //intersection Points with Tube
-        if (lst == null) return basePoint == null ? null : List.of(basePoint);
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        double t = intersect(ray, maxDistance, 0);
+        return t != Double.POSITIVE_INFINITY && hit.set(ray, t, this);
+    }
 
-        gp1 = checkIntersection(lst.get(0).point);
-        gp2 = lst.size() < 2 ? null : checkIntersection(lst.get(1).point);
-        if (basePoint != null)
-            return gp1 != null ? twoPoints(ray, basePoint, gp1)
-                    : gp2 != null ? twoPoints(ray, basePoint, gp2) : List.of(basePoint);
-        if (gp1 == null) return gp2 != null ? List.of(gp2) : null;
-        return gp2 != null ? twoPoints(ray, gp1, gp2) : List.of(gp1);
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        double t1 = intersect(ray, maxDistance, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return 0;
+        return intersect(ray, maxDistance, t1) == Double.POSITIVE_INFINITY ? 1 : 2;
     }
 }
@@ -1,11 +1,13 @@
 package geometries;
 
-import primitives.Point;
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 /**
  * Composite class for all geometries object {@link Intersectable}
  *
@@ -17,6 +19,10 @@ public class Geometries extends Intersectable {
      * A private list of intersectable.
      */
     private List<Intersectable> intersectables;
+    /**
+     * Acceleration structure over the intersectables, null when not built.
+     */
+    private Accelerator accelerator = null;
 
     /**
      * Geometries default constructor
@@ -32,16 +38,126 @@ public class Geometries extends Intersectable {
      */
     public Geometries(Intersectable... intersectables) {
         this();
-        Collections.addAll(this.intersectables, intersectables);
+        add(intersectables);
     }
 
     /**
-     * Takes an array of Intersectables and adds them to the list of Intersectables
+     * Takes an array of Intersectables and adds them to the list of Intersectables.
+     * A previously built acceleration structure is discarded.
      *
      * @param intersectables Linked list of the geometries we stored.
      */
     public void add(Intersectable... intersectables) {
         Collections.addAll(this.intersectables, intersectables);
+        for (Intersectable intersectable : intersectables)
+            intersectable.addContainer(this);
+        resetBoundingBox();
+        this.accelerator = null;
+    }
+
+    /**
+     * Builds a bounding volume hierarchy (SAH) over the current intersectables,
+     * which is used instead of scanning all of them for every ray.
+     * The build runs in parallel on the common fork-join pool, see {@link #getBvhStatistics()}.
+     * Should be called after all the geometries were added.
+     *
+     * @return The Geometries object itself.
+     */
+    public Geometries buildBVH() {
+        this.accelerator = new BoundingVolumeHierarchy(this.intersectables);
+        return this;
+    }
+
+    /**
+     * Builds a linear bounding volume hierarchy (LBVH) over the current intersectables, ordered
+     * by the Morton codes of their centers. Much faster to build than {@link #buildBVH()},
+     * but the tree is of lower quality - best for scenes which are rebuilt every frame.
+     * Should be called after all the geometries were added.
+     *
+     * @return The Geometries object itself.
+     */
+    public Geometries buildLinearBVH() {
+        this.accelerator = new BoundingVolumeHierarchy(this.intersectables, true);
+        return this;
+    }
+
+    /**
+     * Updates the collection after its geometries moved (e.g. {@link Sphere#setCenter(primitives.Point)}),
+     * including the nested collections and the intersectables shared by its instances - each of them once,
+     * even when it is shared by several instances. A bounding volume hierarchy keeps its topology and only
+     * recalculates its bounds, unless the moves degraded it too much - then it is rebuilt, like the other
+     * acceleration structures. Should be called between renders, never while rendering.
+     *
+     * @return The Geometries object itself.
+     */
+    public Geometries refit() {
+        refit(Collections.newSetFromMap(new IdentityHashMap<>()));
+        return this;
+    }
+
+    /**
+     * Updates the collection after its geometries moved, unless it was already updated
+     *
+     * @param refitted the collections which were already updated
+     */
+    void refit(Set<Intersectable> refitted) {
+        if (!refitted.add(this))
+            return;
+        for (var item : this.intersectables)
+            if (item instanceof Geometries geometries)
+                geometries.refit(refitted);
+            else if (item instanceof Instance instance)
+                instance.refit(refitted);
+        resetBoundingBox();
+        if (this.accelerator != null)
+            this.accelerator = this.accelerator.refit(this.intersectables);
+    }
+
+    /**
+     * Getter for the build time and quality of the bounding volume hierarchy
+     *
+     * @return the statistics of the hierarchy, or null if a hierarchy was not built
+     */
+    public BvhStatistics getBvhStatistics() {
+        return this.accelerator instanceof BoundingVolumeHierarchy bvh ? bvh.getStatistics() : null;
+    }
+
+    /**
+     * Builds a uniform grid over the current intersectables, which is used instead of scanning
+     * all of them for every ray. Suits dense and evenly spread scenes of small geometries.
+     * Should be called after all the geometries were added.
+     *
+     * @return The Geometries object itself.
+     */
+    public Geometries buildGrid() {
+        this.accelerator = new UniformGrid(this.intersectables);
+        return this;
+    }
+
+    /**
+     * Builds a kd-tree (SAH) over the current intersectables, which is used instead of scanning
+     * all of them for every ray. Slower to build than a BVH, but closest-hit queries stop at the
+     * first confirmed hit - best for static scenes that are rendered many times.
+     * Should be called after all the geometries were added.
+     *
+     * @return The Geometries object itself.
+     */
+    public Geometries buildKdTree() {
+        this.accelerator = new KdTree(this.intersectables);
+        return this;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = null;
+        for (var item : this.intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            // one infinite item makes the whole collection infinite
+            if (itemBox == null)
+                return null;
+            box = itemBox.union(box);
+        }
+        return box;
     }
 
     /**
@@ -53,18 +169,72 @@ public class Geometries extends Intersectable {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> intersections = null;
+        RayQuery.AllHits query = new RayQuery.AllHits(ray, maxDistance);
+        traverse(query);
+        return query.getIntersections();
+    }
+
+    /**
+     * Finds the closest intersection point of the ray with the geometries.
+     * The distance of the closest point found so far limits the search in the following geometries.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return The closest GeoPoint to the ray's head, or null if there are no intersections.
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Hit hit = new Hit();
+        return findClosestHitHelper(ray, maxDistance, hit) ? hit.toGeoPoint() : null;
+    }
+
+    /**
+     * Records the closest intersection of the ray with the geometries, if it is closer than
+     * the hit already recorded. The distance of the closest hit so far limits the search.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        RayQuery.ClosestHit query = new RayQuery.ClosestHit(ray, maxDistance, hit);
+        traverse(query);
+        return query.isUpdated();
+    }
+
+    /**
+     * Calculates the transparency of the geometries along the ray.
+     * Stops at the first geometry which makes the ray opaque.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param ktr The transparency of the ray so far.
+     * @param minK Minimal transparency which still counts as transparent.
+     * @return The transparency after passing the geometries, zero if the ray is blocked.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        RayQuery.Transparency query = new RayQuery.Transparency(ray, maxDistance, ktr, minK);
+        traverse(query);
+        return query.getTransparency();
+    }
+
+    /**
+     * Hands a ray query the intersectables, through the acceleration structure if it was built
+     *
+     * @param query the query of the ray
+     */
+    private void traverse(RayQuery query) {
+        if (this.accelerator != null) {
+            this.accelerator.traverse(query);
+            return;
+        }
         for (var item : this.intersectables) {
-            //get intersections points of a particular item from intersectables
-            var points = item.findGeoIntersections(ray, maxDistance);
-            if (points != null) {
-                //first time initialize result to new LinkedList
-                if (intersections == null)
-                    intersections = new LinkedList<>();
-                //add all item points to the resulting list
-                intersections.addAll(points);
-            }
+            query.visit(item);
+            if (query.isFinished())
+                return;
         }
-        return intersections;
     }
-}
\ No newline at end of file
+}
@@ -65,4 +65,37 @@ public abstract class Geometry extends Intersectable{
     public Material getMaterial() {
         return material;
     }
+
+    /**
+     * Counts the intersection points of the ray with the surface of the object, without creating them
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return The number of the intersections.
+     */
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        var points = findGeoIntersectionsHelper(ray, maxDistance);
+        return points == null ? 0 : points.size();
+    }
+
+    /**
+     * Multiplies the transparency by the transparency of the material once for every intersection point
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param ktr The transparency of the ray so far.
+     * @param minK Minimal transparency which still counts as transparent.
+     * @return The transparency after passing the geometry, zero if the ray is blocked.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        int count = countIntersectionsHelper(ray, maxDistance);
+        Double3 kt = material.getKt();
+        for (int i = count; i > 0; --i) {
+            ktr = ktr.product(kt);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
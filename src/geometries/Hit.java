@@ -0,0 +1,223 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Record of the closest hit of a ray - the distance along the ray, the geometry, the index of the
+ * hit primitive (e.g. a triangle of a mesh) and the barycentric coordinates of the hit on it.
+ * Geometries record their hits by the distance only, and the hit point and the normal are
+ * calculated on demand, once, for the final closest hit. The record may be reused for another ray
+ * after {@link #reset()}.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class Hit {
+    /**
+     * The ray which hit
+     */
+    private Ray ray;
+    /**
+     * Distance of the hit from the head of the ray
+     */
+    private double t;
+    /**
+     * The geometry which was hit, null while there is no hit
+     */
+    private Geometry geometry;
+    /**
+     * Index of the hit primitive of the geometry, -1 for a geometry without primitives
+     */
+    private int primitive;
+    /**
+     * Barycentric coordinates of the hit on a triangle, 0 for other geometries
+     */
+    private double u, v;
+    /**
+     * The hit point, null until it is needed
+     */
+    private Point point;
+    /**
+     * The normal at the hit point, null until it is needed
+     */
+    private Vector normal;
+
+    /**
+     * Constructor for an empty Hit
+     */
+    public Hit() {
+        reset();
+    }
+
+    /**
+     * Forgets the hit, so the record can be reused for another ray
+     *
+     * @return The Hit object itself.
+     */
+    public Hit reset() {
+        ray = null;
+        t = Double.POSITIVE_INFINITY;
+        geometry = null;
+        primitive = -1;
+        u = v = 0;
+        point = null;
+        normal = null;
+        return this;
+    }
+
+    /**
+     * Records a hit of a geometry, if it is closer than the hit recorded so far
+     *
+     * @param ray      the ray which hit
+     * @param t        distance of the hit from the head of the ray
+     * @param geometry the geometry which was hit
+     * @return true if the hit was recorded
+     */
+    public boolean set(Ray ray, double t, Geometry geometry) {
+        return set(ray, t, geometry, -1, 0, 0);
+    }
+
+    /**
+     * Records a hit of a primitive, if it is closer than the hit recorded so far
+     *
+     * @param ray       the ray which hit
+     * @param t         distance of the hit from the head of the ray
+     * @param geometry  the geometry which was hit
+     * @param primitive index of the hit primitive of the geometry
+     * @param u         barycentric coordinate of the hit of the second vertex of a triangle
+     * @param v         barycentric coordinate of the hit of the third vertex of a triangle
+     * @return true if the hit was recorded
+     */
+    public boolean set(Ray ray, double t, Geometry geometry, int primitive, double u, double v) {
+        if (this.geometry != null && t >= this.t)
+            return false;
+        this.ray = ray;
+        this.t = t;
+        this.geometry = geometry;
+        this.primitive = primitive;
+        this.u = u;
+        this.v = v;
+        this.point = null;
+        this.normal = null;
+        return true;
+    }
+
+    /**
+     * Records a hit whose point is already known, if it is closer than the hit recorded so far
+     *
+     * @param ray the ray which hit
+     * @param gp  the hit geometry and point
+     * @return true if the hit was recorded
+     */
+    boolean set(Ray ray, GeoPoint gp) {
+        if (!set(ray, gp.point.distance(ray.getP0()), gp.geometry))
+            return false;
+        this.point = gp.point;
+        return true;
+    }
+
+    /**
+     * Checks whether a hit was recorded
+     *
+     * @return true if there is a hit
+     */
+    public boolean isFound() {
+        return geometry != null;
+    }
+
+    /**
+     * Getter for the ray which hit
+     *
+     * @return the ray, null if there is no hit
+     */
+    public Ray getRay() {
+        return ray;
+    }
+
+    /**
+     * Getter for the distance of the hit
+     *
+     * @return distance of the hit from the head of the ray, positive infinity if there is no hit
+     */
+    public double getT() {
+        return t;
+    }
+
+    /**
+     * Getter for the geometry which was hit
+     *
+     * @return the geometry, null if there is no hit
+     */
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Getter for the index of the hit primitive
+     *
+     * @return index of the primitive, -1 for a geometry without primitives
+     */
+    public int getPrimitive() {
+        return primitive;
+    }
+
+    /**
+     * Getter for the barycentric coordinate of the second vertex of a hit triangle
+     *
+     * @return the u coordinate
+     */
+    public double getU() {
+        return u;
+    }
+
+    /**
+     * Getter for the barycentric coordinate of the third vertex of a hit triangle
+     *
+     * @return the v coordinate
+     */
+    public double getV() {
+        return v;
+    }
+
+    /**
+     * Returns the hit point, calculated on the first call
+     *
+     * @return the hit point
+     */
+    public Point getPoint() {
+        if (point == null)
+            point = ray.getPoint(t);
+        return point;
+    }
+
+    /**
+     * Returns the normal of the geometry at the hit point, calculated on the first call
+     *
+     * @return the normal
+     */
+    public Vector getNormal() {
+        if (normal == null)
+            normal = geometry.getNormal(getPoint());
+        return normal;
+    }
+
+    /**
+     * Converts the hit to a GeoPoint
+     *
+     * @return the GeoPoint of the hit, null if there is no hit
+     */
+    public GeoPoint toGeoPoint() {
+        return geometry == null ? null : new GeoPoint(geometry, getPoint());
+    }
+
+    @Override
+    public String toString() {
+        return "Hit{" +
+                "t=" + t +
+                ", geometry=" + geometry +
+                ", primitive=" + primitive +
+                '}';
+    }
+}
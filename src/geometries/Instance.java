@@ -0,0 +1,228 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instance of a shared intersectable, placed in the scene by an affine transformation.
+ * Many instances may share the same geometry (e.g. a mesh with its own acceleration structure),
+ * so memory grows with the unique geometry and not with the copies. Rays are transformed
+ * into the object space of the shared geometry, and its hits are transformed back.
+ * Instances are bounded, so they go into the acceleration structure of their collection
+ * like any other intersectable.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class Instance extends Intersectable {
+    /**
+     * Geometry hit through an instance - the shared geometry as seen in world space.
+     * Created per hit, so the shared geometry stays a single object.
+     */
+    private static class PlacedGeometry extends Geometry {
+        /**
+         * The instance the geometry was hit through
+         */
+        private final Instance instance;
+        /**
+         * The shared geometry which was hit
+         */
+        private final Geometry geometry;
+
+        /**
+         * Constructor for PlacedGeometry
+         *
+         * @param instance the instance the geometry was hit through
+         * @param geometry the shared geometry which was hit
+         */
+        PlacedGeometry(Instance instance, Geometry geometry) {
+            this.instance = instance;
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            Vector normal = geometry.getNormal(instance.inverse.applyToPoint(point));
+            // normals are transformed by the inverse transpose
+            return instance.inverse.applyTransposeToVector(normal).normalize();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            Ray objectRay = instance.toObjectSpace(ray);
+            return instance.toWorldSpace(
+                    geometry.findGeoIntersections(objectRay, instance.toObjectSpace(ray, maxDistance)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PlacedGeometry other = (PlacedGeometry) o;
+            return instance == other.instance && geometry.equals(other.geometry);
+        }
+
+        @Override
+        public int hashCode() {
+            return geometry.hashCode();
+        }
+    }
+
+    /**
+     * The shared intersectable
+     */
+    private final Intersectable intersectable;
+    /**
+     * Transformation from the object space of the shared intersectable to the world
+     */
+    private Transform transform;
+    /**
+     * Transformation from the world to the object space of the shared intersectable
+     */
+    private Transform inverse;
+
+    /**
+     * Constructor to initialize Instance based on a shared intersectable and its placement
+     *
+     * @param intersectable the shared intersectable
+     * @param transform     transformation from the object space of the intersectable to the world
+     */
+    public Instance(Intersectable intersectable, Transform transform) {
+        this.intersectable = intersectable;
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        intersectable.addContainer(this);
+    }
+
+    /**
+     * Getter for the shared intersectable
+     *
+     * @return the shared intersectable
+     */
+    public Intersectable getIntersectable() {
+        return intersectable;
+    }
+
+    /**
+     * Getter for the transformation of the instance
+     *
+     * @return transformation from the object space of the intersectable to the world
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Moves the instance. The collections containing the instance must be refitted
+     * afterwards ({@link Geometries#refit()}) before rendering again.
+     *
+     * @param transform transformation from the object space of the intersectable to the world
+     * @return The Instance object itself.
+     */
+    public Instance setTransform(Transform transform) {
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * Updates the instance after the shared intersectable moved, unless it was already updated
+     * through another instance
+     *
+     * @param refitted the collections which were already updated
+     */
+    void refit(Set<Intersectable> refitted) {
+        if (intersectable instanceof Geometries geometries)
+            geometries.refit(refitted);
+        else if (intersectable instanceof Instance instance)
+            instance.refit(refitted);
+        resetBoundingBox();
+    }
+
+    /**
+     * Transforms a ray into the object space of the shared intersectable
+     *
+     * @param ray the ray in world space
+     * @return the ray in object space
+     */
+    private Ray toObjectSpace(Ray ray) {
+        return new Ray(inverse.applyToPoint(ray.getP0()), inverse.applyToVector(ray.getDir()));
+    }
+
+    /**
+     * Transforms a distance along a ray into the object space of the shared intersectable
+     *
+     * @param ray      the ray in world space
+     * @param distance the distance along the ray in world space
+     * @return the distance along the ray in object space
+     */
+    private double toObjectSpace(Ray ray, double distance) {
+        // the object space ray is normalized again, so distances scale by the length of its direction
+        return distance == Double.POSITIVE_INFINITY ? distance
+                : distance * inverse.applyToVector(ray.getDir()).length();
+    }
+
+    /**
+     * Transforms a hit of the shared intersectable into world space
+     *
+     * @param gp the hit in object space, or null
+     * @return the hit in world space, or null
+     */
+    private GeoPoint toWorldSpace(GeoPoint gp) {
+        return gp == null ? null
+                : new GeoPoint(new PlacedGeometry(this, gp.geometry), transform.applyToPoint(gp.point));
+    }
+
+    /**
+     * Transforms hits of the shared intersectable into world space
+     *
+     * @param points the hits in object space, or null
+     * @return the hits in world space, or null
+     */
+    private List<GeoPoint> toWorldSpace(List<GeoPoint> points) {
+        return points == null ? null : points.stream().map(this::toWorldSpace).toList();
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = intersectable.getBoundingBox();
+        if (box == null)
+            return null;
+        // the box of the transformed corners bounds the transformed geometry
+        Point[] corners = new Point[8];
+        for (int i = 0; i < 8; ++i)
+            corners[i] = transform.applyToPoint(new Point(
+                    (i & 1) == 0 ? box.getMin(0) : box.getMax(0),
+                    (i & 2) == 0 ? box.getMin(1) : box.getMax(1),
+                    (i & 4) == 0 ? box.getMin(2) : box.getMax(2)));
+        return new BoundingBox(corners);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        return toWorldSpace(intersectable.findGeoIntersections(toObjectSpace(ray), toObjectSpace(ray, maxDistance)));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        return toWorldSpace(
+                intersectable.findClosestGeoIntersection(toObjectSpace(ray), toObjectSpace(ray, maxDistance)));
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        return intersectable.findTransparency(toObjectSpace(ray), toObjectSpace(ray, maxDistance), ktr, minK);
+    }
+}
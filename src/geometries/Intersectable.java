@@ -2,6 +2,7 @@ package geometries;
 
 import primitives.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -11,6 +12,23 @@ import java.util.Objects;
  *  @author Amiad Korman & Omer Dayan
  */
 public abstract class Intersectable {
+    /**
+     * Cached bounding box of the object, null if the object is infinite.
+     */
+    private BoundingBox boundingBox = null;
+    /**
+     * Whether the bounding box was already calculated.
+     */
+    private boolean boundingBoxReady = false;
+    /**
+     * The object which contains this object (a collection or an instance), whose bounding box
+     * depends on the bounding box of this object. Null if there is none.
+     */
+    private Intersectable container = null;
+    /**
+     * More containers of an object which is shared between several of them, null if there are none.
+     */
+    private List<Intersectable> moreContainers = null;
 
     /**
      * This class represent geometric body and point in it.
@@ -90,9 +108,132 @@ public abstract class Intersectable {
      * @return A list of GeoPoints.
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        // cheap rejection of rays that miss the bounding box
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return null;
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * Returns the closest intersection of the ray with the geometry shape
+     *
+     * @param ray The ray to intersect with.
+     * @return The closest GeoPoint to the ray's head, or null if there are no intersections.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the closest intersection of the ray with the geometry shape, up to a maximum distance
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance to search for intersections.
+     * @return The closest GeoPoint to the ray's head, or null if there are no intersections.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        // cheap rejection of rays that miss the bounding box
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return null;
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Records the closest intersection of the ray with the geometry shape, if it is closer than
+     * the hit already recorded. Only the distance is calculated - the point and the normal
+     * are left for the final hit.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance to search for intersections.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    public final boolean findClosestHit(Ray ray, double maxDistance, Hit hit) {
+        // cheap rejection of rays that miss the bounding box
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return false;
+        return findClosestHitHelper(ray, maxDistance, hit);
+    }
+
+    /**
+     * Calculates the transparency of the geometry shape along the ray (occlusion query).
+     * Every intersection point multiplies the transparency by the transparency of its geometry,
+     * and the query stops as soon as the ray becomes opaque.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param ktr The transparency of the ray so far.
+     * @param minK Minimal transparency which still counts as transparent.
+     * @return The transparency after passing the geometry, zero if the ray is blocked.
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        // cheap rejection of rays that miss the bounding box
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return ktr;
+        return findTransparencyHelper(ray, maxDistance, ktr, minK);
+    }
+
+    /**
+     * Returns the axis-aligned box bounding the object.
+     * Infinite objects (e.g. plane, tube) have no bounding box.
+     *
+     * @return The bounding box of the object, or null if the object is infinite.
+     */
+    public final BoundingBox getBoundingBox() {
+        if (!boundingBoxReady) {
+            boundingBox = calcBoundingBox();
+            boundingBoxReady = true;
+        }
+        return boundingBox;
+    }
+
+    /**
+     * Discards the cached bounding box, and the cached bounding boxes of the objects containing it.
+     * Must be called whenever the object changes its shape.
+     */
+    protected void resetBoundingBox() {
+        // a container calculates its box from the boxes of its parts, so while this box is not
+        // calculated, no container has a box which depends on it
+        if (!boundingBoxReady)
+            return;
+        boundingBoxReady = false;
+        boundingBox = null;
+        if (container != null)
+            container.resetBoundingBox();
+        if (moreContainers != null)
+            for (Intersectable other : moreContainers)
+                other.resetBoundingBox();
+    }
+
+    /**
+     * Registers an object which contains this object, so its bounding box is discarded together
+     * with the bounding box of this object
+     *
+     * @param container the containing object
+     */
+    final void addContainer(Intersectable container) {
+        if (this.container == null)
+            this.container = container;
+        else {
+            if (moreContainers == null)
+                moreContainers = new ArrayList<>(1);
+            moreContainers.add(container);
+        }
+    }
+
+    /**
+     * Calculates the axis-aligned box bounding the object.
+     *
+     * @return The bounding box of the object, or null if the object is infinite.
+     */
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
     /**
      * Finds the intersection points of the ray with the surface of the object
      *
@@ -102,4 +243,41 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Finds the closest intersection point of the ray with the surface of the object.
+     * By default, picks the closest of all the intersection points.
+     *
+     * @param ray The ray to intersect with the GeoPoint.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return The closest GeoPoint to the ray's head, or null if there are no intersections.
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        return ray.findClosestGeoPoint(findGeoIntersectionsHelper(ray, maxDistance));
+    }
+
+    /**
+     * Records the closest intersection of the ray with the surface of the object.
+     * By default, records the closest intersection point.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+        return gp != null && hit.set(ray, gp);
+    }
+
+    /**
+     * Calculates the transparency of the object along the ray
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param ktr The transparency of the ray so far.
+     * @param minK Minimal transparency which still counts as transparent.
+     * @return The transparency after passing the object, zero if the ray is blocked.
+     */
+    protected abstract Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK);
+
 }
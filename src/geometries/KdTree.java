@@ -0,0 +1,363 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kd-tree over the intersectables of a {@link Geometries} collection.
+ * Space is split recursively by axis-aligned planes chosen with the surface area heuristic (SAH),
+ * including a bonus for cutting off empty space. The build is slower than a BVH, but a closest-hit
+ * query walks the tree front to back and stops at the first leaf that confirms a hit, which makes
+ * it the fastest choice for static scenes that are rendered many times.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class KdTree implements Accelerator {
+    /**
+     * Estimated cost of visiting a node, relative to an intersection test
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * Estimated cost of an intersection test with an intersectable
+     */
+    private static final double INTERSECTION_COST = 20;
+    /**
+     * Cost reduction of a split that leaves one of the children empty
+     */
+    private static final double EMPTY_BONUS = 0.5;
+    /**
+     * Maximum depth of the tree regardless of the amount of intersectables
+     */
+    private static final int MAX_DEPTH = 40;
+
+    /**
+     * Node of the tree - either an inner node split by a plane or a leaf with intersectables
+     */
+    private static class Node {
+        /**
+         * Split axis of an inner node: 0 for x, 1 for y, 2 for z
+         */
+        int axis;
+        /**
+         * Coordinate of the split plane on the axis
+         */
+        double split;
+        /**
+         * Children of an inner node - below and above the split plane, null for a leaf
+         */
+        Node below, above;
+        /**
+         * Indices of the intersectables of a leaf, null for an inner node
+         */
+        int[] items;
+    }
+
+    /**
+     * Bounded intersectables of the tree
+     */
+    private final Intersectable[] items;
+    /**
+     * Bounding boxes of the bounded intersectables
+     */
+    private final BoundingBox[] boxes;
+    /**
+     * Intersectables without a bounding box
+     */
+    private final List<Intersectable> unbounded = new ArrayList<>();
+    /**
+     * Box bounding the whole tree, null if there are no bounded intersectables
+     */
+    private final BoundingBox bounds;
+    /**
+     * Root of the tree, null if there are no bounded intersectables
+     */
+    private final Node root;
+    /**
+     * Maximum depth of this tree
+     */
+    private final int maxDepth;
+    /**
+     * Mailbox of the intersectables - an intersectable may be in several leaves
+     */
+    private final Mailbox mailbox;
+
+    /**
+     * Builds the tree over the given intersectables
+     *
+     * @param intersectables the intersectables to arrange in the tree
+     */
+    KdTree(List<Intersectable> intersectables) {
+        List<Intersectable> bounded = new ArrayList<>(intersectables.size());
+        BoundingBox box = null;
+        for (Intersectable item : intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null)
+                unbounded.add(item);
+            else {
+                bounded.add(item);
+                box = itemBox.union(box);
+            }
+        }
+        this.items = bounded.toArray(new Intersectable[0]);
+        this.boxes = new BoundingBox[items.length];
+        for (int i = 0; i < items.length; ++i)
+            boxes[i] = items[i].getBoundingBox();
+        this.bounds = box;
+        this.mailbox = new Mailbox(items.length);
+        this.maxDepth = Math.min(MAX_DEPTH,
+                (int) Math.round(8 + 1.3 * Math.log(Math.max(1, items.length)) / Math.log(2)));
+
+        int[] all = new int[items.length];
+        for (int i = 0; i < all.length; ++i)
+            all[i] = i;
+        this.root = box == null ? null : build(all, box, maxDepth);
+    }
+
+    /**
+     * Recursively builds the subtree over the given intersectables
+     *
+     * @param indices indices of the intersectables overlapping the node
+     * @param box     the region of space of the node
+     * @param depth   the remaining allowed depth
+     * @return the root of the subtree
+     */
+    private Node build(int[] indices, BoundingBox box, int depth) {
+        Node node = new Node();
+        int n = indices.length;
+        double area = box.surfaceArea();
+        if (n <= 1 || depth == 0 || area <= 0) {
+            node.items = indices;
+            return node;
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        double bestSplit = 0;
+        double[] mins = new double[n];
+        double[] maxs = new double[n];
+        for (int axis = 0; axis < 3; ++axis) {
+            double lo = box.getMin(axis), hi = box.getMax(axis);
+            if (hi <= lo)
+                continue;
+            for (int i = 0; i < n; ++i) {
+                mins[i] = boxes[indices[i]].getMin(axis);
+                maxs[i] = boxes[indices[i]].getMax(axis);
+            }
+            Arrays.sort(mins);
+            Arrays.sort(maxs);
+
+            // the candidate planes are the faces of the intersectables' boxes inside the node
+            for (int c = 0; c < 2 * n; ++c) {
+                double split = c < n ? mins[c] : maxs[c - n];
+                if (split <= lo || split >= hi)
+                    continue;
+                int below = countLower(mins, split);
+                int above = n - countLowerOrEqual(maxs, split);
+                double cost = sahCost(box, area, axis, split, below, above);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = split;
+                }
+            }
+        }
+
+        // keep a leaf when splitting is not worth it
+        if (bestAxis < 0 || bestCost >= INTERSECTION_COST * n) {
+            node.items = indices;
+            return node;
+        }
+
+        int[] below = new int[n];
+        int[] above = new int[n];
+        int nBelow = 0, nAbove = 0;
+        for (int i : indices) {
+            double min = boxes[i].getMin(bestAxis), max = boxes[i].getMax(bestAxis);
+            // a flat intersectable lying on the split plane goes to both sides
+            boolean planar = min == bestSplit && max == bestSplit;
+            if (min < bestSplit || planar)
+                below[nBelow++] = i;
+            if (max > bestSplit || planar)
+                above[nAbove++] = i;
+        }
+        if (nBelow == n && nAbove == n) {
+            node.items = indices;
+            return node;
+        }
+
+        node.axis = bestAxis;
+        node.split = bestSplit;
+        node.below = build(Arrays.copyOf(below, nBelow), clip(box, bestAxis, bestSplit, true), depth - 1);
+        node.above = build(Arrays.copyOf(above, nAbove), clip(box, bestAxis, bestSplit, false), depth - 1);
+        return node;
+    }
+
+    /**
+     * Estimated cost of splitting a node by a plane according to the surface area heuristic
+     *
+     * @param box   the region of the node
+     * @param area  surface area of the node
+     * @param axis  the split axis
+     * @param split the split coordinate
+     * @param below amount of intersectables below the plane
+     * @param above amount of intersectables above the plane
+     * @return the expected cost of a ray passing through the node
+     */
+    private static double sahCost(BoundingBox box, double area, int axis, double split, int below, int above) {
+        double dx = box.getMax(0) - box.getMin(0);
+        double dy = box.getMax(1) - box.getMin(1);
+        double dz = box.getMax(2) - box.getMin(2);
+        // area of the faces parallel to the split plane, and the perimeter of those faces
+        double face = axis == 0 ? dy * dz : axis == 1 ? dx * dz : dx * dy;
+        double perimeter = axis == 0 ? dy + dz : axis == 1 ? dx + dz : dx + dy;
+        double belowArea = 2 * (face + (split - box.getMin(axis)) * perimeter);
+        double aboveArea = 2 * (face + (box.getMax(axis) - split) * perimeter);
+        double bonus = below == 0 || above == 0 ? EMPTY_BONUS : 0;
+        return TRAVERSAL_COST
+                + INTERSECTION_COST * (1 - bonus) * (belowArea * below + aboveArea * above) / area;
+    }
+
+    /**
+     * Counts the values lower than a number in a sorted array
+     *
+     * @param sorted the sorted values
+     * @param value  the number
+     * @return amount of values lower than the number
+     */
+    private static int countLower(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Counts the values lower than or equal to a number in a sorted array
+     *
+     * @param sorted the sorted values
+     * @param value  the number
+     * @return amount of values lower than or equal to the number
+     */
+    private static int countLowerOrEqual(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Cuts a box by a plane
+     *
+     * @param box   the box to cut
+     * @param axis  the axis of the plane
+     * @param split the coordinate of the plane
+     * @param below true for the part below the plane, false for the part above it
+     * @return the part of the box
+     */
+    private static BoundingBox clip(BoundingBox box, int axis, double split, boolean below) {
+        double[] min = {box.getMin(0), box.getMin(1), box.getMin(2)};
+        double[] max = {box.getMax(0), box.getMax(1), box.getMax(2)};
+        if (below)
+            max[axis] = split;
+        else
+            min[axis] = split;
+        return new BoundingBox(min[0], min[1], min[2], max[0], max[1], max[2]);
+    }
+
+    @Override
+    public Accelerator refit(List<Intersectable> intersectables) {
+        // the split planes depend on all the boxes - a new structure is needed
+        return new KdTree(intersectables);
+    }
+
+    @Override
+    public void traverse(RayQuery query) {
+        for (Intersectable item : unbounded) {
+            query.visit(item);
+            if (query.isFinished())
+                return;
+        }
+        if (root != null)
+            walk(query);
+    }
+
+    /**
+     * Walks the leaves the ray passes through, front to back, and hands the query their intersectables
+     *
+     * @param query the query of the ray
+     */
+    private void walk(RayQuery query) {
+        Ray ray = query.ray;
+        double tMin = bounds.entryDistance(ray, query.maxDistance);
+        if (tMin == Double.POSITIVE_INFINITY)
+            return;
+        double tMax = query.maxDistance;
+
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double[] origin = {p0.getX(), p0.getY(), p0.getZ()};
+        double[] direction = {dir.getX(), dir.getY(), dir.getZ()};
+        double[] inverse = {ray.getInverseX(), ray.getInverseY(), ray.getInverseZ()};
+
+        Node[] stackNodes = new Node[maxDepth + 1];
+        double[] stackMins = new double[maxDepth + 1];
+        double[] stackMaxs = new double[maxDepth + 1];
+        int top = 0;
+
+        int[] marks = mailbox.newRay();
+        Node node = root;
+        while (node != null) {
+            if (tMin > query.maxDistance)
+                return;
+            if (node.items == null) {
+                double o = origin[node.axis], d = direction[node.axis];
+                boolean belowFirst = o < node.split || (o == node.split && d <= 0);
+                Node near = belowFirst ? node.below : node.above;
+                Node far = belowFirst ? node.above : node.below;
+                double tSplit = (node.split - o) * inverse[node.axis];
+
+                if (d == 0 || tSplit > tMax || tSplit <= 0)
+                    node = near;
+                else if (tSplit < tMin)
+                    node = far;
+                else {
+                    // visit the near child first, the far child is waiting on the stack
+                    stackNodes[top] = far;
+                    stackMins[top] = tSplit;
+                    stackMaxs[top++] = tMax;
+                    node = near;
+                    tMax = tSplit;
+                }
+                continue;
+            }
+
+            for (int i : node.items) {
+                if (!mailbox.mark(marks, i))
+                    continue;
+                query.visit(items[i]);
+                if (query.isFinished())
+                    return;
+            }
+            // everything up to the leaf's exit was visited
+            if (query.isFinished(tMax))
+                return;
+
+            if (top == 0)
+                return;
+            node = stackNodes[--top];
+            tMin = stackMins[top];
+            tMax = stackMaxs[top];
+        }
+    }
+}
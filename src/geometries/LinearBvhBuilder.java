@@ -0,0 +1,273 @@
+package geometries;
+
+import geometries.BoundingVolumeHierarchy.BoundsTask;
+import geometries.BoundingVolumeHierarchy.Entry;
+import geometries.BoundingVolumeHierarchy.Node;
+import geometries.BoundingVolumeHierarchy.RangeBounds;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+import static geometries.BoundingVolumeHierarchy.PARALLEL_BUILD_SIZE;
+
+/**
+ * Builder of a linear bounding volume hierarchy (LBVH). The intersectables are ordered along
+ * a Morton (Z-order) curve through the centers of their boxes, by a parallel radix sort of 63 bit
+ * codes, and the hierarchy is cut out of the sorted order at the highest differing bit of the codes.
+ * The build takes about linear time and suits scenes which are rebuilt every frame,
+ * at the price of a tree of lower quality than the surface area heuristic.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class LinearBvhBuilder {
+    /**
+     * Amount of bits of a Morton code per axis
+     */
+    private static final int BITS_PER_AXIS = 21;
+    /**
+     * Amount of bits sorted in a pass of the radix sort
+     */
+    private static final int RADIX_BITS = 8;
+    /**
+     * Amount of buckets of a pass of the radix sort
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+    /**
+     * Minimal amount of codes sorted by a single worker in a pass of the radix sort
+     */
+    private static final int SORT_CHUNK_SIZE = 4096;
+
+    /**
+     * Task building the subtree over a range of the sorted entries
+     */
+    @SuppressWarnings("serial")
+    private static class BuildTask extends RecursiveTask<Node> {
+        /**
+         * The sorted entries and their Morton codes
+         */
+        private final Entry[] entries;
+        private final long[] codes;
+        /**
+         * The range [from, to) of the subtree
+         */
+        private final int from, to;
+
+        /**
+         * Constructor for BuildTask
+         *
+         * @param entries the entries, sorted by their Morton codes
+         * @param codes   the sorted Morton codes
+         * @param from    first entry of the subtree (inclusive)
+         * @param to      last entry of the subtree (exclusive)
+         */
+        BuildTask(Entry[] entries, long[] codes, int from, int to) {
+            this.entries = entries;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            return build(entries, codes, from, to);
+        }
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private LinearBvhBuilder() {
+    }
+
+    /**
+     * Builds a linear hierarchy over the entries, on the common fork-join pool
+     *
+     * @param entries the entries, at least one, reordered in place while building
+     * @return the root of the hierarchy
+     */
+    static Node build(Entry[] entries) {
+        int n = entries.length;
+        RangeBounds range = ForkJoinPool.commonPool().invoke(new BoundsTask(entries, 0, n));
+
+        long[] codes = new long[n];
+        int[] order = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            codes[i] = mortonCode(entries[i], range);
+            order[i] = i;
+        });
+        radixSort(codes, order);
+
+        Entry[] sorted = new Entry[n];
+        IntStream.range(0, n).parallel().forEach(i -> sorted[i] = entries[order[i]]);
+        System.arraycopy(sorted, 0, entries, 0, n);
+        return ForkJoinPool.commonPool().invoke(new BuildTask(entries, codes, 0, n));
+    }
+
+    /**
+     * Calculates the Morton code of the center of an entry - the bits of its quantized
+     * coordinates interleaved, so that close codes are close in space
+     *
+     * @param entry the entry
+     * @param range the bounds of the centers of all the entries
+     * @return the 63 bit Morton code
+     */
+    private static long mortonCode(Entry entry, RangeBounds range) {
+        long code = 0;
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = range.centerMax[axis] - range.centerMin[axis];
+            long cell = extent <= 0 ? 0
+                    : (long) ((entry.center[axis] - range.centerMin[axis]) / extent * ((1L << BITS_PER_AXIS) - 1));
+            code |= spreadBits(cell) << (2 - axis);
+        }
+        return code;
+    }
+
+    /**
+     * Spreads the low 21 bits of a number so there are two zero bits between every two bits
+     *
+     * @param value the number
+     * @return the spread bits
+     */
+    private static long spreadBits(long value) {
+        long x = value & 0x1fffffL;
+        x = (x | x << 32) & 0x1f00000000ffffL;
+        x = (x | x << 16) & 0x1f0000ff0000ffL;
+        x = (x | x << 8) & 0x100f00f00f00f00fL;
+        x = (x | x << 4) & 0x10c30c30c30c30c3L;
+        x = (x | x << 2) & 0x1249249249249249L;
+        return x;
+    }
+
+    /**
+     * Sorts the codes together with their entry indices - a stable least significant digit radix sort.
+     * Every pass counts the digits of chunks of the codes in parallel, and then each chunk scatters
+     * its codes into its own slots of the buckets in parallel.
+     *
+     * @param codes the codes to sort
+     * @param order the entry indices, reordered together with the codes
+     */
+    private static void radixSort(long[] codes, int[] order) {
+        int n = codes.length;
+        int chunkCount = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, n / SORT_CHUNK_SIZE));
+        int chunkSize = (n + chunkCount - 1) / chunkCount;
+        long[] codesBuffer = new long[n];
+        int[] orderBuffer = new int[n];
+        int[][] counts = new int[chunkCount][RADIX];
+
+        long[] sourceCodes = codes, targetCodes = codesBuffer;
+        int[] sourceOrder = order, targetOrder = orderBuffer;
+        for (int shift = 0; shift < 3 * BITS_PER_AXIS; shift += RADIX_BITS) {
+            final int digitShift = shift;
+            final long[] fromCodes = sourceCodes, toCodes = targetCodes;
+            final int[] fromOrder = sourceOrder, toOrder = targetOrder;
+
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                int[] count = counts[chunk];
+                Arrays.fill(count, 0);
+                for (int i = chunk * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i)
+                    ++count[(int) (fromCodes[i] >>> digitShift) & (RADIX - 1)];
+            });
+
+            // turn the counts into the first slot of each chunk in each bucket
+            int offset = 0;
+            boolean uniform = false;
+            for (int digit = 0; digit < RADIX; ++digit) {
+                int bucketStart = offset;
+                for (int chunk = 0; chunk < chunkCount; ++chunk) {
+                    int count = counts[chunk][digit];
+                    counts[chunk][digit] = offset;
+                    offset += count;
+                }
+                if (offset - bucketStart == n)
+                    uniform = true;
+            }
+            // all the codes have the same digit - the pass would not move anything
+            if (uniform)
+                continue;
+
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                int[] slot = counts[chunk];
+                for (int i = chunk * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i) {
+                    int digit = (int) (fromCodes[i] >>> digitShift) & (RADIX - 1);
+                    int target = slot[digit]++;
+                    toCodes[target] = fromCodes[i];
+                    toOrder[target] = fromOrder[i];
+                }
+            });
+
+            sourceCodes = toCodes;
+            targetCodes = fromCodes;
+            sourceOrder = toOrder;
+            targetOrder = fromOrder;
+        }
+
+        if (sourceCodes != codes) {
+            System.arraycopy(sourceCodes, 0, codes, 0, n);
+            System.arraycopy(sourceOrder, 0, order, 0, n);
+        }
+    }
+
+    /**
+     * Builds the subtree over the sorted entries[from, to), split where the highest bit
+     * which differs between the codes of the range changes. Large children are built as tasks of their own.
+     *
+     * @param entries the entries, sorted by their Morton codes
+     * @param codes   the sorted Morton codes
+     * @param from    first entry of the subtree (inclusive)
+     * @param to      last entry of the subtree (exclusive)
+     * @return the root of the subtree
+     */
+    private static Node build(Entry[] entries, long[] codes, int from, int to) {
+        if (to - from == 1) {
+            Node leaf = new Node(entries[from].box);
+            leaf.entries = new Entry[]{entries[from]};
+            return leaf;
+        }
+
+        int mid = findSplit(codes, from, to);
+        Node left, right;
+        if (to - from >= PARALLEL_BUILD_SIZE) {
+            BuildTask leftTask = new BuildTask(entries, codes, from, mid);
+            leftTask.fork();
+            right = build(entries, codes, mid, to);
+            left = leftTask.join();
+        } else {
+            left = build(entries, codes, from, mid);
+            right = build(entries, codes, mid, to);
+        }
+
+        Node node = new Node(left.box.union(right.box));
+        node.left = left;
+        node.right = right;
+        node.size = 1 + left.size + right.size;
+        return node;
+    }
+
+    /**
+     * Finds where the highest differing bit of the sorted codes[from, to) changes, by binary search
+     *
+     * @param codes the sorted Morton codes
+     * @param from  first code of the range (inclusive)
+     * @param to    last code of the range (exclusive)
+     * @return the first index of the upper part, strictly between from and to
+     */
+    private static int findSplit(long[] codes, int from, int to) {
+        long first = codes[from], last = codes[to - 1];
+        // identical codes - split the range in the middle
+        if (first == last)
+            return (from + to) >>> 1;
+
+        int commonPrefix = Long.numberOfLeadingZeros(first ^ last);
+        int split = from;
+        int step = to - 1 - from;
+        do {
+            step = (step + 1) >>> 1;
+            int candidate = split + step;
+            if (candidate < to - 1 && Long.numberOfLeadingZeros(first ^ codes[candidate]) > commonPrefix)
+                split = candidate;
+        } while (step > 1);
+        return split + 1;
+    }
+}
@@ -0,0 +1,61 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * Mailbox of an acceleration structure which may reach the same intersectable more than once
+ * along a ray (e.g. a geometry spanning several grid cells). It remembers, per thread,
+ * which intersectables were already tested with the current ray.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class Mailbox {
+    /**
+     * Amount of intersectables in the structure
+     */
+    private final int size;
+    /**
+     * Per thread marks - the last ray stamp each intersectable was tested with.
+     * The last slot keeps the current stamp of the thread.
+     */
+    private final ThreadLocal<int[]> marks;
+
+    /**
+     * Constructor for Mailbox
+     *
+     * @param size amount of intersectables in the structure
+     */
+    Mailbox(int size) {
+        this.size = size;
+        this.marks = ThreadLocal.withInitial(() -> new int[size + 1]);
+    }
+
+    /**
+     * Starts a new ray in the current thread
+     *
+     * @return the marks of the current thread, with a fresh stamp in the last slot
+     */
+    int[] newRay() {
+        int[] box = marks.get();
+        // after a wrap around all the old marks must be forgotten
+        if (++box[size] == 0) {
+            Arrays.fill(box, 0);
+            box[size] = 1;
+        }
+        return box;
+    }
+
+    /**
+     * Checks whether an intersectable should be tested with the current ray, and marks it as tested
+     *
+     * @param box   the marks returned by {@link #newRay()}
+     * @param index index of the intersectable in the structure
+     * @return true if the intersectable was not tested yet with the current ray
+     */
+    boolean mark(int[] box, int index) {
+        if (box[index] == box[size])
+            return false;
+        box[index] = box[size];
+        return true;
+    }
+}
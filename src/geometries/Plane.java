@@ -94,21 +94,20 @@ public class Plane extends FlatGeometry {
     }
 
     /**
-     * Finds the intersection points of the ray with the surface of the object
+     * Finds the distance of the intersection of the ray with the plane
      *
-     * @param ray The ray to intersect with the GeoPoint.
+     * @param ray The ray to intersect with.
      * @param maxDistance The maximum distance from the source of the ray to intersect with.
-     * @return A list of GeoPoints that are the intersections of the ray with the object.
+     * @return the distance of the intersection, or positive infinity if there is none
      */
-    @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+    private double intersect(Ray ray, double maxDistance) {
         Point P0 = ray.getP0();
         Vector v = ray.getDir();
         Vector n = normal;
 
         // ray begins at q0 of the plane
         if (q0.equals(P0)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         // ray is laying in the plane axis
@@ -116,27 +115,58 @@ public class Plane extends FlatGeometry {
 
         //ray direction cannot be parallel to plane orientation
         if (isZero(nv)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
-        Vector P0_Q0 = q0.subtract(P0);
-
-        // numerator
-        double nQMinusP0 = alignZero(n.dotProduct(P0_Q0));
+        // numerator: n * (q0 - P0)
+        double nQMinusP0 = alignZero(n.getX() * (q0.getX() - P0.getX())
+                + n.getY() * (q0.getY() - P0.getY())
+                + n.getZ() * (q0.getZ() - P0.getZ()));
 
         // t should be > 0
         if (isZero(nQMinusP0)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         double t = alignZero(nQMinusP0 / nv);
 
         // t should be > 0
         if (t < 0 || alignZero(t - maxDistance) > 0) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
+        return t;
+    }
 
+    /**
+     * Finds the intersection points of the ray with the surface of the object
+     *
+     * @param ray The ray to intersect with the GeoPoint.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return A list of GeoPoints that are the intersections of the ray with the object.
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance);
         // return immutable List
-        return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    /**
+     * Records the intersection of the ray with the plane, by its distance only
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        double t = intersect(ray, maxDistance);
+        return t != Double.POSITIVE_INFINITY && hit.set(ray, t, this);
+    }
+
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        return intersect(ray, maxDistance) == Double.POSITIVE_INFINITY ? 0 : 1;
     }
 }
@@ -20,6 +20,19 @@ public class Polygon extends FlatGeometry {
 	 * Associated plane in which the polygon lays
 	 */
 	protected final Plane plane;
+	/**
+	 * Coordinates of the first vertex, the point of the plane
+	 */
+	private final double qx, qy, qz;
+	/**
+	 * Axes of the 2D projection of the polygon - the two axes other than the dominant axis of its normal
+	 */
+	private final int axisU, axisV;
+	/**
+	 * Edges of the projected polygon as lines: the unit inward normal (u, v) and the offset of each edge.
+	 * A projected point (pu, pv) is inside the polygon when u * pu + v * pv > offset for all the edges.
+	 */
+	private final double[] edges;
 
 	/**
 	 * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -51,6 +64,16 @@ public class Polygon extends FlatGeometry {
 		// The plane holds the invariant normal (orthogonal unit) vector to the polygon
 		this.plane = new Plane(vertices[0], vertices[1], vertices[2]);
 		this.normal = this.plane.getNormal();
+		this.qx = vertices[0].getX();
+		this.qy = vertices[0].getY();
+		this.qz = vertices[0].getZ();
+
+		// project on the plane of the two axes along which the polygon is the widest
+		double nx = Math.abs(normal.getX()), ny = Math.abs(normal.getY()), nz = Math.abs(normal.getZ());
+		int dominant = nx >= ny && nx >= nz ? 0 : ny >= nz ? 1 : 2;
+		this.axisU = (dominant + 1) % 3;
+		this.axisV = (dominant + 2) % 3;
+		this.edges = calcEdges(vertices);
 
 		if (vertices.length == 3)
 			return; // no need for more tests for a Triangle
@@ -82,6 +105,47 @@ public class Polygon extends FlatGeometry {
 		}
 	}
 
+	/**
+	 * Calculates the lines of the edges of the projected polygon, with their normals pointing inside
+	 *
+	 * @param vertices the vertices of the polygon
+	 * @return normal u, normal v and offset of each edge
+	 */
+	private double[] calcEdges(Point[] vertices) {
+		int n = vertices.length;
+		// the orientation of the projected polygon decides which side of an edge is inside
+		double area = 0;
+		for (int i = 0; i < n; ++i) {
+			Point a = vertices[i], b = vertices[(i + 1) % n];
+			area += coordinate(a, axisU) * coordinate(b, axisV) - coordinate(b, axisU) * coordinate(a, axisV);
+		}
+		double sign = area > 0 ? 1 : -1;
+
+		double[] lines = new double[n * 3];
+		for (int i = 0; i < n; ++i) {
+			Point a = vertices[i], b = vertices[(i + 1) % n];
+			double eu = coordinate(b, axisU) - coordinate(a, axisU);
+			double ev = coordinate(b, axisV) - coordinate(a, axisV);
+			double length = Math.sqrt(eu * eu + ev * ev);
+			double u = -sign * ev / length, v = sign * eu / length;
+			lines[i * 3] = u;
+			lines[i * 3 + 1] = v;
+			lines[i * 3 + 2] = u * coordinate(a, axisU) + v * coordinate(a, axisV);
+		}
+		return lines;
+	}
+
+	/**
+	 * Returns a coordinate of a point
+	 *
+	 * @param point the point
+	 * @param axis  0 for x, 1 for y, 2 for z
+	 * @return the coordinate
+	 */
+	private static double coordinate(Point point, int axis) {
+		return axis == 0 ? point.getX() : axis == 1 ? point.getY() : point.getZ();
+	}
+
 	@Override
 	public String toString() {
 		return "Polygon{" +
@@ -101,6 +165,48 @@ public class Polygon extends FlatGeometry {
 		return this.normal;
 	}
 
+	@Override
+	protected BoundingBox calcBoundingBox() {
+		return new BoundingBox(vertices.toArray(new Point[0]));
+	}
+
+	/**
+	 * Finds the distance of the intersection of the ray with the polygon
+	 *
+	 * @param ray The ray to intersect with.
+	 * @param maxDistance The maximum distance from the source of the ray to intersect with.
+	 * @return the distance of the intersection, or positive infinity if there is none
+	 */
+	private double intersect(Ray ray, double maxDistance) {
+		Point p0 = ray.getP0();
+		Vector dir = ray.getDir();
+		double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+		double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+		double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+
+		// ray is parallel to the plane
+		double nv = nx * dx + ny * dy + nz * dz;
+		if (isZero(nv))
+			return Double.POSITIVE_INFINITY;
+
+		// t should be > 0 - the ray doesn't start on the plane
+		double nQMinusP0 = alignZero(nx * (qx - ox) + ny * (qy - oy) + nz * (qz - oz));
+		if (isZero(nQMinusP0))
+			return Double.POSITIVE_INFINITY;
+		double t = alignZero(nQMinusP0 / nv);
+		if (t < 0 || alignZero(t - maxDistance) > 0)
+			return Double.POSITIVE_INFINITY;
+
+		// the point must be strictly inside all the edges of the projected polygon
+		double hu = axisU == 0 ? ox + t * dx : axisU == 1 ? oy + t * dy : oz + t * dz;
+		double hv = axisV == 0 ? ox + t * dx : axisV == 1 ? oy + t * dy : oz + t * dz;
+		for (int i = 0; i < edges.length; i += 3)
+			if (alignZero(edges[i] * hu + edges[i + 1] * hv - edges[i + 2]) <= 0)
+				return Double.POSITIVE_INFINITY;
+
+		return t;
+	}
+
 	/**
 	 * Finds the intersection points of the ray with the surface of the object
 	 *
@@ -110,42 +216,26 @@ public class Polygon extends FlatGeometry {
 	 */
 	@Override
 	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-		List<GeoPoint> intersections = this.plane.findGeoIntersections(ray, maxDistance);
-
-		// if there is no Intersections at all in the plane
-		if (intersections == null)
-			return null;
-
-		int numOfVertices = vertices.size();
-		Point p0 = ray.getP0();
-		Vector dir = ray.getDir();
-
-		Vector v1 = vertices.get(numOfVertices - 1).subtract(p0);
-		Vector v2 = vertices.get(0).subtract(p0);
-
-		Vector n = v1.crossProduct(v2).normalize();
-		double vn = dir.dotProduct(n);
-		boolean positive = vn > 0;
-
-		if (isZero(vn))
-			return null;
-
-		for (int i = 1; i < numOfVertices; ++i) {
-			v1 = v2;
-			v2 = vertices.get(i).subtract(p0);
-			n = v1.crossProduct(v2).normalize();
-			vn = dir.dotProduct(n);
-
-			//no intersection
-			if (isZero(vn))
-				return null;
-
-			//not the same sign
-			if (vn > 0 != positive)
-				return null;
-		}
+		double t = intersect(ray, maxDistance);
+		return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+	}
 
-		return List.of(new GeoPoint(this, intersections.get(0).point));
+	/**
+	 * Records the intersection of the ray with the polygon, by its distance only
+	 *
+	 * @param ray The ray to intersect with.
+	 * @param maxDistance The maximum distance from the source of the ray to intersect with.
+	 * @param hit The record of the closest hit so far.
+	 * @return true if the hit was recorded
+	 */
+	@Override
+	protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+		double t = intersect(ray, maxDistance);
+		return t != Double.POSITIVE_INFINITY && hit.set(ray, t, this);
 	}
 
+	@Override
+	protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+		return intersect(ray, maxDistance) == Double.POSITIVE_INFINITY ? 0 : 1;
+	}
 }
@@ -0,0 +1,201 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A query of a ray against a collection of intersectables. The collection (or its acceleration
+ * structure) hands the query every intersectable the ray may hit, and stops as soon as the query
+ * tells that the rest of the intersectables cannot change its result.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+abstract class RayQuery {
+    /**
+     * The ray of the query
+     */
+    final Ray ray;
+    /**
+     * The maximum distance from the source of the ray to intersect with, may shrink during the query
+     */
+    double maxDistance;
+
+    /**
+     * Constructor for RayQuery
+     *
+     * @param ray         The ray of the query.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     */
+    RayQuery(Ray ray, double maxDistance) {
+        this.ray = ray;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Intersects the ray with an intersectable and adds the outcome to the result of the query
+     *
+     * @param item the intersectable
+     */
+    abstract void visit(Intersectable item);
+
+    /**
+     * Checks whether the result of the query is final, whatever the rest of the intersectables are
+     *
+     * @return true if the query may stop
+     */
+    boolean isFinished() {
+        return false;
+    }
+
+    /**
+     * Checks whether the result of the query is final, when all the intersectables up to a distance
+     * along the ray were already visited (used by the structures which walk the ray front to back)
+     *
+     * @param distance the distance along the ray which is fully visited
+     * @return true if the query may stop
+     */
+    boolean isFinished(double distance) {
+        return isFinished();
+    }
+
+    /**
+     * Query of all the intersection points
+     */
+    static class AllHits extends RayQuery {
+        /**
+         * The intersection points found so far, null if there are none
+         */
+        private List<GeoPoint> intersections = null;
+
+        /**
+         * Constructor for AllHits
+         *
+         * @param ray         The ray of the query.
+         * @param maxDistance The maximum distance from the source of the ray to intersect with.
+         */
+        AllHits(Ray ray, double maxDistance) {
+            super(ray, maxDistance);
+        }
+
+        @Override
+        void visit(Intersectable item) {
+            var points = item.findGeoIntersections(ray, maxDistance);
+            if (points != null) {
+                if (intersections == null)
+                    intersections = new LinkedList<>();
+                intersections.addAll(points);
+            }
+        }
+
+        /**
+         * Getter for the result of the query
+         *
+         * @return A list of GeoPoints, or null if there are no intersections.
+         */
+        List<GeoPoint> getIntersections() {
+            return intersections;
+        }
+    }
+
+    /**
+     * Query of the closest intersection. The distance of the closest hit found so far
+     * limits the search in the following intersectables.
+     */
+    static class ClosestHit extends RayQuery {
+        /**
+         * The record of the closest hit
+         */
+        private final Hit hit;
+        /**
+         * Whether the query recorded a hit
+         */
+        private boolean updated = false;
+
+        /**
+         * Constructor for ClosestHit
+         *
+         * @param ray         The ray of the query.
+         * @param maxDistance The maximum distance from the source of the ray to intersect with.
+         * @param hit         The record of the closest hit so far.
+         */
+        ClosestHit(Ray ray, double maxDistance, Hit hit) {
+            super(ray, Math.min(maxDistance, hit.getT()));
+            this.hit = hit;
+        }
+
+        @Override
+        void visit(Intersectable item) {
+            if (item.findClosestHit(ray, maxDistance, hit)) {
+                updated = true;
+                maxDistance = hit.getT();
+            }
+        }
+
+        @Override
+        boolean isFinished(double distance) {
+            // a hit before the distance is closer than anything beyond it
+            return hit.isFound() && maxDistance <= distance;
+        }
+
+        /**
+         * Checks whether the query recorded a hit
+         *
+         * @return true if the hit record was updated by the query
+         */
+        boolean isUpdated() {
+            return updated;
+        }
+    }
+
+    /**
+     * Occlusion query - the transparency of everything along the ray.
+     * Stops at the first blocker which makes the ray opaque.
+     */
+    static class Transparency extends RayQuery {
+        /**
+         * Minimal transparency which still counts as transparent
+         */
+        private final double minK;
+        /**
+         * Product of the transparency of the intersections found so far
+         */
+        private Double3 ktr;
+
+        /**
+         * Constructor for Transparency
+         *
+         * @param ray         The ray of the query.
+         * @param maxDistance The maximum distance from the source of the ray to intersect with.
+         * @param ktr         The transparency of the ray before the query.
+         * @param minK        Minimal transparency which still counts as transparent.
+         */
+        Transparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+            super(ray, maxDistance);
+            this.ktr = ktr;
+            this.minK = minK;
+        }
+
+        @Override
+        void visit(Intersectable item) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+        }
+
+        @Override
+        boolean isFinished() {
+            return ktr.lowerThan(minK);
+        }
+
+        /**
+         * Getter for the result of the query
+         *
+         * @return The transparency along the ray, zero if the ray is blocked.
+         */
+        Double3 getTransparency() {
+            return ktr;
+        }
+    }
+}
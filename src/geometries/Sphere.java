@@ -15,9 +15,9 @@ import static primitives.Util.alignZero;
  */
 public class Sphere extends Geometry{
     /**
-     * Center of Sphere.
+     * Center of Sphere, may move between frames.
      */
-    final private Point center;
+    private Point center;
     /**
      * Radius od Sphere.
      */
@@ -34,6 +34,19 @@ public class Sphere extends Geometry{
         this.radius = radius;
     }
 
+    /**
+     * Moves the sphere to a new center. The collections containing the sphere must be refitted
+     * afterwards ({@link Geometries#refit()}) before rendering again.
+     *
+     * @param center Sphere's new center.
+     * @return The Sphere object itself.
+     */
+    public Sphere setCenter(Point center) {
+        this.center = center;
+        resetBoundingBox();
+        return this;
+    }
+
     /**
      * Overrides the toString method in the Object class
      *
@@ -55,8 +68,13 @@ public class Sphere extends Geometry{
      */
     @Override
     public Vector getNormal(Point point) {
-        Vector v = point.subtract(center);
-        return v.normalize();
+        return point.subtractNormalized(center);
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     /**
@@ -107,4 +125,57 @@ public class Sphere extends Geometry{
 
         return null; // no intersections at all
     }
+
+    /**
+     * Finds the distance of one of the intersections of the ray with the sphere, without creating points
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param far false for the nearer intersection, true for the farther one
+     * @return the distance of the intersection, or positive infinity if there is none
+     */
+    private double intersect(Ray ray, double maxDistance, boolean far) {
+        Point P0 = ray.getP0();
+        Vector v = ray.getDir();
+
+        // a ray from the center has a single intersection
+        if (P0.equals(center))
+            return far || alignZero(this.radius - maxDistance) > 0 ? Double.POSITIVE_INFINITY : radius;
+
+        // u = center - P0
+        double ux = center.getX() - P0.getX(), uy = center.getY() - P0.getY(), uz = center.getZ() - P0.getZ();
+
+        double tm = alignZero(ux * v.getX() + uy * v.getY() + uz * v.getZ());
+        double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - (tm * tm)));
+
+        // no intersections : the ray direction is above the sphere
+        if (d >= radius)
+            return Double.POSITIVE_INFINITY;
+
+        double th = alignZero(Math.sqrt((radius * radius) - (d * d)));
+        double t = alignZero(far ? tm + th : tm - th);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Records the closest intersection of the ray with the sphere, by its distance only
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        double t = intersect(ray, maxDistance, false);
+        if (t == Double.POSITIVE_INFINITY)
+            t = intersect(ray, maxDistance, true);
+        return t != Double.POSITIVE_INFINITY && hit.set(ray, t, this);
+    }
+
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        return (intersect(ray, maxDistance, false) == Double.POSITIVE_INFINITY ? 0 : 1)
+                + (intersect(ray, maxDistance, true) == Double.POSITIVE_INFINITY ? 0 : 1);
+    }
 }
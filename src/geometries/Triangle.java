@@ -5,6 +5,7 @@ import primitives.*;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * This class is a polygon with three points
@@ -12,6 +13,18 @@ import static primitives.Util.alignZero;
  * @author Amiad Korman & Omer Dayan
  */
 public class Triangle extends Polygon {
+    /**
+     * Coordinates of the first vertex
+     */
+    private final double x0, y0, z0;
+    /**
+     * Edge from the first vertex to the second one
+     */
+    private final double e1x, e1y, e1z;
+    /**
+     * Edge from the first vertex to the third one
+     */
+    private final double e2x, e2y, e2z;
 
     /**
      * Constructor to initialize Triangle based three points
@@ -22,46 +35,89 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        x0 = p1.getX();
+        y0 = p1.getY();
+        z0 = p1.getZ();
+        e1x = p2.getX() - x0;
+        e1y = p2.getY() - y0;
+        e1z = p2.getZ() - z0;
+        e2x = p3.getX() - x0;
+        e2y = p3.getY() - y0;
+        e2z = p3.getZ() - z0;
     }
 
     /**
-     * Finds the intersection points of the ray with the surface of the object
+     * Intersects a ray with the triangle (Möller–Trumbore) over the edges precomputed
+     * at construction. The edges and vertices don't belong to the triangle.
+     * Nothing is allocated.
      *
-     * @param ray The ray to intersect with the GeoPoint.
+     * @param ray         The ray to intersect with the triangle.
      * @param maxDistance The maximum distance from the source of the ray to intersect with.
-     * @return A list of GeoPoints that are the intersections of the ray with the object.
+     * @param hit         record to set with the distance and the barycentric coordinates of the hit, or null
+     * @return the distance of the hit, or positive infinity if the ray misses the triangle within the distance
      */
-    @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // Gets all intersections with the plane
-        var result = plane.findGeoIntersections(ray, maxDistance);
+    private double intersect(Ray ray, double maxDistance, Hit hit) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
 
-        // if there is no intersections with the whole plane,
-        // then is no intersections with the triangle
-        if (result == null) {
-            return null;
-        }
+        // p = dir x e2, the determinant is zero when the ray is parallel to the triangle
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.POSITIVE_INFINITY;
+        double inverseDet = 1 / det;
 
-        Point P0 = ray.getP0();
-        Vector v = ray.getDir();
+        double sx = p0.getX() - x0, sy = p0.getY() - y0, sz = p0.getZ() - z0;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverseDet);
+        if (u <= 0 || u >= 1)
+            return Double.POSITIVE_INFINITY;
 
-        Vector v1 = this.vertices.get(0).subtract(P0),
-                v2 = this.vertices.get(1).subtract(P0),
-                v3 = this.vertices.get(2).subtract(P0);
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverseDet);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
 
-        Vector n1 = v1.crossProduct(v2).normalize(),
-                n2 = v2.crossProduct(v3).normalize(),
-                n3 = v3.crossProduct(v1).normalize();
+        // t should be > 0
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverseDet);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return Double.POSITIVE_INFINITY;
+        // point = (1 - u - v) * p1 + u * p2 + v * p3
+        if (hit != null && !hit.set(ray, t, this, -1, u, v))
+            return Double.POSITIVE_INFINITY;
+        return t;
+    }
 
-        double a = alignZero(v.dotProduct(n1)),
-                b = alignZero(v.dotProduct(n2)),
-                c = alignZero(v.dotProduct(n3));
+    /**
+     * Finds the intersection points of the ray with the surface of the object
+     *
+     * @param ray The ray to intersect with the GeoPoint.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return A list of GeoPoints that are the intersections of the ray with the object.
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, null);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        // if all the points have the same sign(+/-),
-        // all the points are inside the triangle
-        if (a < 0 && b < 0 && c < 0 || a > 0 && b > 0 && c > 0)
-            return List.of(new GeoPoint(this,result.get(0).point));
+    /**
+     * Records the intersection of the ray with the triangle, by its distance and its
+     * barycentric coordinates only
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param hit The record of the closest hit so far.
+     * @return true if the hit was recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        return intersect(ray, maxDistance, hit) != Double.POSITIVE_INFINITY;
+    }
 
-        return null;
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        return intersect(ray, maxDistance, null) == Double.POSITIVE_INFINITY ? 0 : 1;
     }
 }
@@ -0,0 +1,594 @@
+package geometries;
+
+import geometries.BoundingVolumeHierarchy.Entry;
+import geometries.BoundingVolumeHierarchy.Node;
+import geometries.BoundingVolumeHierarchy.TraversalStack;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static geometries.BoundingVolumeHierarchy.BOUNDS_SIZE;
+import static geometries.BoundingVolumeHierarchy.LINKS_SIZE;
+import static geometries.BoundingVolumeHierarchy.entryDistance;
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Mesh of triangles with shared vertices. The vertex positions are kept in a single flat array
+ * and the triangles in an index buffer, so neighbouring triangles share their vertices, and no
+ * object is kept per triangle. The triangles are arranged in an internal bounding volume hierarchy,
+ * built with the surface area heuristic, and hits report the index of the triangle they hit.
+ * A hit on an edge shared by several triangles, or on a vertex inside the mesh, belongs to exactly one
+ * of the triangles around it - the first of them in the index buffer - so rays neither leak between
+ * neighbouring triangles nor hit both of them. Like the edges of a single {@link Triangle}, the edges
+ * and the vertices on the rim of the mesh are not hit.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * Triangle of a mesh which was hit - reports the mesh and the index of the triangle,
+     * and has the material and emission of the mesh. Created per hit.
+     */
+    public static class Face extends Geometry {
+        /**
+         * The mesh of the triangle
+         */
+        private final TriangleMesh mesh;
+        /**
+         * Index of the triangle in the mesh
+         */
+        private final int index;
+
+        /**
+         * Constructor for Face
+         *
+         * @param mesh  the mesh of the triangle
+         * @param index index of the triangle in the mesh
+         */
+        private Face(TriangleMesh mesh, int index) {
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        /**
+         * Getter for the mesh of the triangle
+         *
+         * @return the mesh
+         */
+        public TriangleMesh getMesh() {
+            return mesh;
+        }
+
+        /**
+         * Getter for the index of the triangle
+         *
+         * @return index of the triangle in the mesh
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Color getEmission() {
+            return mesh.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return mesh.getMaterial();
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return mesh.getNormal(index);
+        }
+
+        @Override
+        protected BoundingBox calcBoundingBox() {
+            return mesh.triangleBox(index);
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            double t = mesh.intersect(index, p0.getX(), p0.getY(), p0.getZ(),
+                    dir.getX(), dir.getY(), dir.getZ(), maxDistance, null, null);
+            return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        }
+
+        @Override
+        protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            return mesh.intersect(index, p0.getX(), p0.getY(), p0.getZ(),
+                    dir.getX(), dir.getY(), dir.getZ(), maxDistance, null, null) == Double.POSITIVE_INFINITY ? 0 : 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Face face = (Face) o;
+            return mesh == face.mesh && index == face.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return "Face{" + "index=" + index + '}';
+        }
+    }
+
+    /**
+     * Positions of the vertices: x, y, z of each vertex
+     */
+    private final double[] positions;
+    /**
+     * Vertex indices of the triangles, three per triangle
+     */
+    private final int[] indices;
+    /**
+     * Whether each triangle owns the hits on its edges, three per triangle -
+     * edge k goes from corner k to the next corner
+     */
+    private final boolean[] ownedEdges;
+    /**
+     * Index of the triangle owning the hits on each vertex, -1 for a vertex on the rim of the mesh
+     */
+    private final int[] vertexOwners;
+    /**
+     * Bounds of the hierarchy nodes: min x, y, z and max x, y, z of each node
+     */
+    private final double[] bounds;
+    /**
+     * Links of the hierarchy nodes: for an inner node the index of its right child and 0,
+     * for a leaf the index of its first triangle in {@link #triangles} and the amount of its triangles
+     */
+    private final int[] links;
+    /**
+     * Triangle indices, ordered so each leaf references a consecutive range
+     */
+    private final int[] triangles;
+    /**
+     * Per thread traversal stack, deep enough for the hierarchy
+     */
+    private final ThreadLocal<TraversalStack> stacks;
+
+    /**
+     * Constructor to initialize TriangleMesh based on vertex positions and an index buffer
+     *
+     * @param positions x, y, z of each vertex
+     * @param indices   three vertex indices per triangle
+     * @throws IllegalArgumentException when the arrays are not made of triplets,
+     *                                  there are no triangles, or an index is not of a vertex
+     */
+    public TriangleMesh(double[] positions, int[] indices) {
+        if (positions.length % 3 != 0)
+            throw new IllegalArgumentException("Positions must be made of x, y, z triplets");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("Mesh must have triangles of three vertex indices");
+        int vertexCount = positions.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is out of the positions");
+        this.positions = positions.clone();
+        this.indices = indices.clone();
+        this.ownedEdges = new boolean[indices.length];
+        this.vertexOwners = new int[vertexCount];
+        findOwners();
+
+        int triangleCount = getTriangleCount();
+        Entry[] entries = new Entry[triangleCount];
+        for (int i = 0; i < triangleCount; ++i)
+            entries[i] = new Entry(i, triangleBox(i));
+        Node root = BoundingVolumeHierarchy.buildTree(entries, false);
+
+        this.bounds = new double[root.size * BOUNDS_SIZE];
+        this.links = new int[root.size * LINKS_SIZE];
+        this.triangles = new int[triangleCount];
+        flatten(root, 0, 0);
+        int depth = depth(root);
+        this.stacks = ThreadLocal.withInitial(() -> new TraversalStack(depth + 1));
+    }
+
+    /**
+     * Decides which triangle owns the hits on each edge and vertex - the first triangle around it,
+     * unless the edge or the vertex is on the rim of the mesh, where no triangle owns them
+     */
+    private void findOwners() {
+        // edges are matched by their vertices, in whichever direction the triangles go along them
+        Map<Long, Integer> firstEdges = new HashMap<>();
+        boolean[] shared = new boolean[indices.length];
+        for (int edge = 0; edge < indices.length; ++edge) {
+            int from = indices[edge], to = indices[nextCorner(edge)];
+            Integer first = firstEdges.putIfAbsent((long) Math.min(from, to) << 32 | Math.max(from, to), edge);
+            if (first != null) {
+                ownedEdges[first] = true;
+                shared[first] = true;
+                shared[edge] = true;
+            }
+        }
+
+        Arrays.fill(vertexOwners, -1);
+        for (int corner = indices.length - 1; corner >= 0; --corner)
+            vertexOwners[indices[corner]] = corner / 3;
+        for (int edge = 0; edge < indices.length; ++edge)
+            if (!shared[edge]) {
+                vertexOwners[indices[edge]] = -1;
+                vertexOwners[indices[nextCorner(edge)]] = -1;
+            }
+    }
+
+    /**
+     * Finds the next corner of a triangle in its winding
+     *
+     * @param corner index of a corner in the index buffer
+     * @return index of the next corner of the same triangle in the index buffer
+     */
+    private static int nextCorner(int corner) {
+        return corner % 3 == 2 ? corner - 2 : corner + 1;
+    }
+
+    /**
+     * Writes a subtree into the flat layout, in depth-first order
+     *
+     * @param node          the root of the subtree
+     * @param index         index of the root in the flat layout
+     * @param firstTriangle index of the first free slot in the triangles array
+     * @return index of the first free slot in the triangles array after the subtree
+     */
+    private int flatten(Node node, int index, int firstTriangle) {
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[index * BOUNDS_SIZE + axis] = node.box.getMin(axis);
+            bounds[index * BOUNDS_SIZE + 3 + axis] = node.box.getMax(axis);
+        }
+        if (node.entries != null) {
+            links[index * LINKS_SIZE] = firstTriangle;
+            links[index * LINKS_SIZE + 1] = node.entries.length;
+            for (Entry entry : node.entries)
+                triangles[firstTriangle++] = entry.index;
+            return firstTriangle;
+        }
+        // the left child follows its parent, the right child follows the left subtree
+        int right = index + 1 + node.left.size;
+        links[index * LINKS_SIZE] = right;
+        firstTriangle = flatten(node.left, index + 1, firstTriangle);
+        return flatten(node.right, right, firstTriangle);
+    }
+
+    /**
+     * Measures the depth of a subtree
+     *
+     * @param node the root of the subtree
+     * @return amount of levels in the subtree
+     */
+    private static int depth(Node node) {
+        return node.entries != null ? 1 : 1 + Math.max(depth(node.left), depth(node.right));
+    }
+
+    /**
+     * Getter for the amount of triangles
+     *
+     * @return amount of triangles in the mesh
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Getter for the amount of vertices
+     *
+     * @return amount of vertices in the mesh
+     */
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    /**
+     * Returns a vertex of a triangle
+     *
+     * @param triangle index of the triangle
+     * @param corner   0, 1 or 2
+     * @return the position of the vertex
+     */
+    public Point getVertex(int triangle, int corner) {
+        int v = indices[triangle * 3 + corner] * 3;
+        return new Point(positions[v], positions[v + 1], positions[v + 2]);
+    }
+
+    /**
+     * Returns the normal of a triangle, by the right-hand rule over the order of its vertices
+     *
+     * @param triangle index of the triangle
+     * @return the normal of the triangle
+     */
+    public Vector getNormal(int triangle) {
+        Point p0 = getVertex(triangle, 0);
+        return getVertex(triangle, 1).subtract(p0).crossProduct(getVertex(triangle, 2).subtract(p0)).normalize();
+    }
+
+    /**
+     * Returns the normal at a point on the mesh. It searches the triangles for the point,
+     * so prefer the normal of the hit triangle ({@link Face#getNormal(Point)}).
+     *
+     * @param point The point on the mesh's surface.
+     * @return the normal of the first triangle containing the point
+     * @throws IllegalArgumentException when the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        for (int triangle = 0; triangle < getTriangleCount(); ++triangle) {
+            Point p0 = getVertex(triangle, 0);
+            Vector e1 = getVertex(triangle, 1).subtract(p0), e2 = getVertex(triangle, 2).subtract(p0);
+            if (point.equals(p0))
+                return getNormal(triangle);
+            // barycentric coordinates of the point in the plane of the triangle
+            Vector w = point.subtract(p0);
+            double d11 = e1.dotProduct(e1), d12 = e1.dotProduct(e2), d22 = e2.dotProduct(e2);
+            double denominator = d11 * d22 - d12 * d12;
+            if (isZero(denominator))
+                continue;
+            Vector normal = getNormal(triangle);
+            if (!isZero(w.dotProduct(normal)))
+                continue;
+            double w1 = w.dotProduct(e1), w2 = w.dotProduct(e2);
+            double u = alignZero((d22 * w1 - d12 * w2) / denominator);
+            double v = alignZero((d11 * w2 - d12 * w1) / denominator);
+            if (u >= 0 && v >= 0 && alignZero(u + v - 1) <= 0)
+                return normal;
+        }
+        throw new IllegalArgumentException("Point is not on the mesh");
+    }
+
+    /**
+     * Calculates the bounding box of a triangle
+     *
+     * @param triangle index of the triangle
+     * @return the box of its three vertices
+     */
+    private BoundingBox triangleBox(int triangle) {
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int corner = 0; corner < 3; ++corner) {
+            int v = indices[triangle * 3 + corner] * 3;
+            for (int axis = 0; axis < 3; ++axis) {
+                min[axis] = Math.min(min[axis], positions[v + axis]);
+                max[axis] = Math.max(max[axis], positions[v + axis]);
+            }
+        }
+        return new BoundingBox(min[0], min[1], min[2], max[0], max[1], max[2]);
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Intersects a ray with a triangle (Möller–Trumbore)
+     *
+     * @param triangle    index of the triangle
+     * @param ox          x coordinate of the ray's head
+     * @param oy          y coordinate of the ray's head
+     * @param oz          z coordinate of the ray's head
+     * @param dx          x coordinate of the ray's direction
+     * @param dy          y coordinate of the ray's direction
+     * @param dz          z coordinate of the ray's direction
+     * @param maxDistance the maximum distance from the ray's head
+     * @param ray         the ray, needed only for recording the hit
+     * @param hit         record to set with the distance and the barycentric coordinates of the hit, or null
+     * @return the distance of the hit, or positive infinity if the ray misses the triangle within the distance
+     */
+    private double intersect(int triangle, double ox, double oy, double oz,
+                             double dx, double dy, double dz, double maxDistance, Ray ray, Hit hit) {
+        int i0 = indices[triangle * 3] * 3, i1 = indices[triangle * 3 + 1] * 3, i2 = indices[triangle * 3 + 2] * 3;
+        double x0 = positions[i0], y0 = positions[i0 + 1], z0 = positions[i0 + 2];
+        double e1x = positions[i1] - x0, e1y = positions[i1 + 1] - y0, e1z = positions[i1 + 2] - z0;
+        double e2x = positions[i2] - x0, e2y = positions[i2 + 1] - y0, e2z = positions[i2 + 2] - z0;
+
+        // p = dir x e2, the determinant is zero when the ray is parallel to the triangle
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.POSITIVE_INFINITY;
+        double inverseDet = 1 / det;
+
+        double sx = ox - x0, sy = oy - y0, sz = oz - z0;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverseDet);
+        if (u < 0 || alignZero(u - 1) > 0)
+            return Double.POSITIVE_INFINITY;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverseDet);
+        double w = alignZero(1 - u - v);
+        if (v < 0 || w < 0)
+            return Double.POSITIVE_INFINITY;
+        // a hit on an edge or a vertex belongs to only one of the triangles around it
+        if ((u == 0 || v == 0 || w == 0) && !ownsHit(triangle, u, v, w))
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverseDet);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return Double.POSITIVE_INFINITY;
+        if (hit != null && !hit.set(ray, t, new Face(this, triangle), triangle, u, v))
+            return Double.POSITIVE_INFINITY;
+        return t;
+    }
+
+    /**
+     * Checks whether a triangle owns a hit on its edge or its vertex
+     *
+     * @param triangle index of the triangle
+     * @param u        barycentric weight of vertex 1 in the hit
+     * @param v        barycentric weight of vertex 2 in the hit
+     * @param w        barycentric weight of vertex 0 in the hit, 1 - u - v
+     * @return true if the hit belongs to the triangle
+     */
+    private boolean ownsHit(int triangle, double u, double v, double w) {
+        if (u == 0 && v == 0)
+            return vertexOwners[indices[triangle * 3]] == triangle;
+        if (v == 0 && w == 0)
+            return vertexOwners[indices[triangle * 3 + 1]] == triangle;
+        if (w == 0 && u == 0)
+            return vertexOwners[indices[triangle * 3 + 2]] == triangle;
+        // u = 0 on the edge from vertex 2 to vertex 0, v = 0 from 0 to 1, w = 0 from 1 to 2
+        return ownedEdges[triangle * 3 + (v == 0 ? 0 : w == 0 ? 1 : 2)];
+    }
+
+    /**
+     * Walks the hierarchy along a ray, nearer nodes first
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the ray's head
+     * @param hits        list collecting all the hits, or null to find only the closest hit or to count
+     * @param limit       when counting the hits, the amount of hits to stop at; 0 to find the closest hit
+     * @return index of the closest hit triangle when looking for the closest hit, -1 if there is none,
+     * or the amount of the hits (up to the limit) when counting them
+     */
+    private int traverse(Ray ray, double maxDistance, List<GeoPoint> hits, int limit) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+        int sx = ray.getSignX(), sy = ray.getSignY(), sz = ray.getSignZ();
+
+        if (entryDistance(bounds, 0, ox, oy, oz, ix, iy, iz, sx, sy, sz, maxDistance) == Double.POSITIVE_INFINITY)
+            return limit > 0 ? 0 : -1;
+
+        TraversalStack stack = stacks.get();
+        int top = 0;
+        int node = 0;
+        int closest = -1;
+        int count = 0;
+        while (true) {
+            int leafSize = links[node * LINKS_SIZE + 1];
+            if (leafSize > 0) {
+                int first = links[node * LINKS_SIZE];
+                for (int i = first; i < first + leafSize; ++i) {
+                    int triangle = triangles[i];
+                    double t = intersect(triangle, ox, oy, oz, dx, dy, dz, maxDistance, null, null);
+                    if (t == Double.POSITIVE_INFINITY)
+                        continue;
+                    if (hits != null)
+                        hits.add(new GeoPoint(new Face(this, triangle), ray.getPoint(t)));
+                    else if (limit > 0) {
+                        // no need to walk on once enough hits were counted
+                        if (++count == limit)
+                            return count;
+                    } else if (closest < 0 || t < maxDistance) {
+                        // farther triangles can't be closer
+                        closest = triangle;
+                        maxDistance = t;
+                    }
+                }
+                node = -1;
+            } else {
+                // visit the nearer child first, the farther one is waiting on the stack
+                int left = node + 1, right = links[node * LINKS_SIZE];
+                double tLeft = entryDistance(bounds, left, ox, oy, oz, ix, iy, iz, sx, sy, sz, maxDistance);
+                double tRight = entryDistance(bounds, right, ox, oy, oz, ix, iy, iz, sx, sy, sz, maxDistance);
+                int near = tLeft <= tRight ? left : right;
+                int far = tLeft <= tRight ? right : left;
+                double tNear = Math.min(tLeft, tRight), tFar = Math.max(tLeft, tRight);
+                if (tNear == Double.POSITIVE_INFINITY)
+                    node = -1;
+                else {
+                    if (tFar != Double.POSITIVE_INFINITY) {
+                        stack.nodes[top] = far;
+                        stack.distances[top++] = tFar;
+                    }
+                    node = near;
+                }
+            }
+
+            // pop the next waiting node, which may start beyond the closest hit found so far
+            while (node < 0) {
+                if (top == 0)
+                    return limit > 0 ? count : closest;
+                if (stack.distances[--top] <= maxDistance)
+                    node = stack.nodes[top];
+            }
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> hits = new ArrayList<>();
+        traverse(ray, maxDistance, hits, 0);
+        return hits.isEmpty() ? null : hits;
+    }
+
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        return traverse(ray, maxDistance, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Multiplies the transparency by the transparency of the material once for every hit triangle.
+     * Stops walking the hierarchy as soon as enough triangles were hit to make the ray opaque.
+     *
+     * @param ray The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param ktr The transparency of the ray so far.
+     * @param minK Minimal transparency which still counts as transparent.
+     * @return The transparency after passing the mesh, zero if the ray is blocked.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Double3 kt = getMaterial().getKt();
+        // the amount of hits which make the ray opaque - a ray can't hit more triangles than the mesh has,
+        // and a product which stopped changing never becomes opaque
+        int blocking = 1;
+        for (Double3 k = ktr.product(kt); !k.lowerThan(minK); ++blocking) {
+            Double3 next = k.product(kt);
+            if (blocking > getTriangleCount() || next.equals(k)) {
+                blocking = Integer.MAX_VALUE;
+                break;
+            }
+            k = next;
+        }
+
+        int count = traverse(ray, maxDistance, null, blocking);
+        if (count == blocking)
+            return Double3.ZERO;
+        for (int i = count; i > 0; --i)
+            ktr = ktr.product(kt);
+        return ktr;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        int triangle = traverse(ray, maxDistance, null, 0);
+        if (triangle < 0)
+            return null;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double t = intersect(triangle, p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(),
+                maxDistance, null, null);
+        return new GeoPoint(new Face(this, triangle), ray.getPoint(t));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        int triangle = traverse(ray, maxDistance, null, 0);
+        if (triangle < 0)
+            return false;
+        // only the closest triangle gets a face and its barycentric coordinates
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersect(triangle, p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(),
+                maxDistance, ray, hit) != Double.POSITIVE_INFINITY;
+    }
+}
@@ -98,78 +98,93 @@ public class Tube extends Geometry{
     }
 
     /**
-     * Create list of two points on a ray according to the order from ray's head.
+     * Finds the closest intersection of a ray with the tube beyond a distance - the roots of the
+     * quadratic equation a*t^2 + b*t + c = 0, calculated on scalars without any exception:
+     * a = (v-(v,va)va)^2, b = 2(v-(v,va)va,delP-(delP,va)va), c = (delP-(delP,va)va)^2 - r^2, delP = p0-pa
+     * (taken from the web: https://mrl.cs.nyu.edu/~dzorin/rend05/lecture2.pdf)
      *
-     * @param ray to check the distance from its head.
-     * @param p1  1st point.
-     * @param p2  2nd point.
-     * @return ordered list of the two points.
+     * @param ray         The ray to intersect with.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @param minDistance The distance beyond which the intersection is looked for.
+     * @return the distance of the intersection, or positive infinity if there is none
      */
-    protected List<GeoPoint> twoPoints(Ray ray, GeoPoint p1, GeoPoint p2) {
-        Point p0 = ray.getP0();
-        return p0.distanceSquared(p1.point) <= p0.distanceSquared(p2.point) ? List.of(p1, p2) : List.of(p2, p1);
-    }
-
-    @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        //taken from the web: https://mrl.cs.nyu.edu/~dzorin/rend05/lecture2.pdf
-
+    private double intersect(Ray ray, double maxDistance, double minDistance) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
         Point pa = this.axisRay.getP0();
         Vector va = this.axisRay.getDir();
-
-        double a, b, c; //coefficients for quadratic equation ax^2 + bx + c
-
-        // a = (v-(v,va)va)^2
-        // b = 2(v-(v,va)va,delP-(delP,va)va)
-        // c = (delP-(delP,va)va)^2 - r^2
-        // delP = p0-pa
-
-        //note: (v,u) = v dot product u = vu = v*u
-
-        //Step 1 - calculates a:
-        Vector vecA = v;
-        try {
-            double vva = v.dotProduct(va); //(v,va)
-            if (!isZero(vva)) vecA = v.subtract(va.scale(vva)); //v-(v,va)va
-            a = vecA.lengthSquared(); //(v-(v,va)va)^2
-        } catch (IllegalArgumentException e) {
-            return null; //if a=0 there are no intersections because Ray is parallel to axisRay
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double ax = va.getX(), ay = va.getY(), az = va.getZ();
+
+        //Step 1 - calculates a from v-(v,va)va:
+        double vva = vx * ax + vy * ay + vz * az;
+        if (!isZero(vva)) {
+            vx -= ax * vva;
+            vy -= ay * vva;
+            vz -= az * vva;
         }
-
-        //Step 2 - calculates deltaP (delP), b, c:
-        try {
-            Vector deltaP = p0.subtract(pa); //p0-pa
-            Vector deltaPMinusDeltaPVaVa = deltaP;
-            double deltaPVa = deltaP.dotProduct(va); //(delP,va)va)
-            if (!isZero(deltaPVa)) deltaPMinusDeltaPVaVa = deltaP.subtract(va.scale(deltaPVa)); //(delP-(delP,va)va)
-            b = 2 * (vecA.dotProduct(deltaPMinusDeltaPVaVa)); //2(v-(v,va)va,delP-(delP,va)va)
-            c = deltaPMinusDeltaPVaVa.lengthSquared() - this.sqrRadius; //(delP-(delP,va)va)^2 - r^2
-        } catch (IllegalArgumentException e) {
-            b = 0; //if delP = 0, or (delP-(delP,va)va = (0, 0, 0)
-            c = -1 * this.sqrRadius;
+        //if a=0 there are no intersections because Ray is parallel to axisRay
+        if (isZero(vx) && isZero(vy) && isZero(vz))
+            return Double.POSITIVE_INFINITY;
+        double a = vx * vx + vy * vy + vz * vz;
+
+        //Step 2 - calculates b, c from delP-(delP,va)va:
+        double px = p0.getX() - pa.getX(), py = p0.getY() - pa.getY(), pz = p0.getZ() - pa.getZ();
+        double deltaPVa = px * ax + py * ay + pz * az;
+        if (!isZero(deltaPVa)) {
+            px -= ax * deltaPVa;
+            py -= ay * deltaPVa;
+            pz -= az * deltaPVa;
+        }
+        double b = 0, c = -sqrRadius; //if the head of the ray is on the axis
+        if (!isZero(px) || !isZero(py) || !isZero(pz)) {
+            b = 2 * (vx * px + vy * py + vz * pz);
+            c = px * px + py * py + pz * pz - sqrRadius;
         }
 
-        //Step 3 - solving the quadratic equation: ax^2 + bx + c = 0
-        double discriminator = alignZero(b * b - 4 * a * c); //discriminator: b^2 - 4ac
-        if (discriminator <= 0) return null; //there are no intersections because Ray is parallel to axisRay
-
-        //the solutions for the equation: (-b +- discriminator) / 2a
+        //Step 3 - solving the quadratic equation: the solutions are (-b +- sqrt(discriminator)) / 2a
+        double discriminator = alignZero(b * b - 4 * a * c);
+        if (discriminator <= 0)
+            return Double.POSITIVE_INFINITY; //the ray doesn't cross the tube, or only touches it
         double sqrtDiscriminator = Math.sqrt(discriminator);
-        double t1 = alignZero(-b + sqrtDiscriminator) / (2 * a);
-        double t2 = alignZero(-b - sqrtDiscriminator) / (2 * a);
+        double t1 = alignZero(-b - sqrtDiscriminator) / (2 * a);
+        double t2 = alignZero(-b + sqrtDiscriminator) / (2 * a);
+
+        //t1 < t2, so the farther solution counts only when the nearer one doesn't
+        if (t1 > 0 && alignZero(t1 - minDistance) > 0 && alignZero(t1 - maxDistance) <= 0)
+            return t1;
+        if (t2 > 0 && alignZero(t2 - minDistance) > 0 && alignZero(t2 - maxDistance) <= 0)
+            return t2;
+        return Double.POSITIVE_INFINITY;
+    }
 
-        //if t1 or t2 are bigger than maxDistance they wll be set to negative value
-        if (alignZero(t1 - maxDistance) > 0) t1 = -1;
-        if (alignZero(t2 - maxDistance) > 0) t2 = -1;
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t1 = intersect(ray, maxDistance, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return null;
+        double t2 = intersect(ray, maxDistance, t1);
+        GeoPoint gp1 = new GeoPoint(this, ray.getPoint(t1));
+        return t2 == Double.POSITIVE_INFINITY ? List.of(gp1) : List.of(gp1, new GeoPoint(this, ray.getPoint(t2)));
+    }
 
-        //takes all positive solutions
-        if (t1 > 0 && t2 > 0)
-            return twoPoints(ray, new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
-        if (t1 > 0) return List.of(new GeoPoint(this, ray.getPoint(t1)));
-        if (t2 > 0) return List.of(new GeoPoint(this, ray.getPoint(t2)));
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, 0);
+        return t == Double.POSITIVE_INFINITY ? null : new GeoPoint(this, ray.getPoint(t));
+    }
 
-        return null; //if there are no positive solutions
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        double t = intersect(ray, maxDistance, 0);
+        return t != Double.POSITIVE_INFINITY && hit.set(ray, t, this);
+    }
+
+    @Override
+    protected int countIntersectionsHelper(Ray ray, double maxDistance) {
+        double t1 = intersect(ray, maxDistance, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return 0;
+        return intersect(ray, maxDistance, t1) == Double.POSITIVE_INFINITY ? 1 : 2;
     }
 }
@@ -0,0 +1,240 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform voxel grid over the intersectables of a {@link Geometries} collection.
+ * Every cell keeps the intersectables whose bounding boxes overlap it, and a ray walks
+ * only the cells it passes through, in order, with 3D-DDA. Suits dense and evenly spread
+ * scenes of small geometries, and it is much faster to build than a tree.
+ * An intersectable that spans several cells is tested only once per ray ({@link Mailbox}).
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class UniformGrid implements Accelerator {
+    /**
+     * Desired average amount of cells per intersectable
+     */
+    private static final double CELLS_PER_ITEM = 2;
+    /**
+     * Maximum amount of cells along an axis
+     */
+    private static final int MAX_RESOLUTION = 128;
+
+    /**
+     * Bounded intersectables of the grid
+     */
+    private final Intersectable[] items;
+    /**
+     * Intersectables without a bounding box
+     */
+    private final List<Intersectable> unbounded = new ArrayList<>();
+    /**
+     * Box bounding the whole grid, null if there are no bounded intersectables
+     */
+    private final BoundingBox bounds;
+    /**
+     * Amount of cells along each axis
+     */
+    private final int[] resolution = new int[3];
+    /**
+     * Size of a cell along each axis
+     */
+    private final double[] cellSize = new double[3];
+    /**
+     * Indices (into items) of the intersectables overlapping each cell, null for an empty cell
+     */
+    private final int[][] cells;
+    /**
+     * Mailbox of the intersectables, so each one is tested once per ray
+     */
+    private final Mailbox mailbox;
+
+    /**
+     * Builds the grid over the given intersectables
+     *
+     * @param intersectables the intersectables to arrange in the grid
+     */
+    UniformGrid(List<Intersectable> intersectables) {
+        List<Intersectable> bounded = new ArrayList<>(intersectables.size());
+        BoundingBox box = null;
+        for (Intersectable item : intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null)
+                unbounded.add(item);
+            else {
+                bounded.add(item);
+                box = itemBox.union(box);
+            }
+        }
+        this.items = bounded.toArray(new Intersectable[0]);
+        this.bounds = box;
+        this.mailbox = new Mailbox(items.length);
+
+        if (box == null) {
+            this.cells = new int[0][];
+            return;
+        }
+
+        calcResolution(box, items.length);
+        this.cells = new int[resolution[0] * resolution[1] * resolution[2]][];
+
+        // put each intersectable in all the cells its box overlaps
+        List<List<Integer>> cellLists = new ArrayList<>(cells.length);
+        for (int i = 0; i < cells.length; ++i)
+            cellLists.add(null);
+        for (int i = 0; i < items.length; ++i) {
+            BoundingBox itemBox = items[i].getBoundingBox();
+            int x1 = cellIndex(0, itemBox.getMin(0)), x2 = cellIndex(0, itemBox.getMax(0));
+            int y1 = cellIndex(1, itemBox.getMin(1)), y2 = cellIndex(1, itemBox.getMax(1));
+            int z1 = cellIndex(2, itemBox.getMin(2)), z2 = cellIndex(2, itemBox.getMax(2));
+            for (int z = z1; z <= z2; ++z)
+                for (int y = y1; y <= y2; ++y)
+                    for (int x = x1; x <= x2; ++x) {
+                        int cell = (z * resolution[1] + y) * resolution[0] + x;
+                        if (cellLists.get(cell) == null)
+                            cellLists.set(cell, new ArrayList<>());
+                        cellLists.get(cell).add(i);
+                    }
+        }
+        for (int i = 0; i < cells.length; ++i) {
+            List<Integer> list = cellLists.get(i);
+            if (list != null)
+                cells[i] = list.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Chooses the amount of cells along each axis, so that the cells are about cubic
+     * and their total amount is proportional to the amount of intersectables
+     *
+     * @param box   the box of the whole grid
+     * @param count the amount of intersectables
+     */
+    private void calcResolution(BoundingBox box, int count) {
+        // flat axes (e.g. a wall of polygons) get a single cell and are left out of the cell volume
+        double volume = 1;
+        int dimensions = 0;
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = box.getMax(axis) - box.getMin(axis);
+            if (extent > 0) {
+                volume *= extent;
+                ++dimensions;
+            }
+        }
+        double cellEdge = dimensions == 0 ? 0 : Math.pow(volume / (CELLS_PER_ITEM * count), 1d / dimensions);
+
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = box.getMax(axis) - box.getMin(axis);
+            resolution[axis] = extent > 0
+                    ? Math.max(1, Math.min(MAX_RESOLUTION, (int) Math.round(extent / cellEdge)))
+                    : 1;
+            cellSize[axis] = extent / resolution[axis];
+        }
+    }
+
+    /**
+     * Finds the cell index along an axis which contains a coordinate, clamped into the grid
+     *
+     * @param axis       0 for x, 1 for y, 2 for z
+     * @param coordinate the coordinate on the axis
+     * @return the cell index along the axis
+     */
+    private int cellIndex(int axis, double coordinate) {
+        if (cellSize[axis] == 0)
+            return 0;
+        int index = (int) ((coordinate - bounds.getMin(axis)) / cellSize[axis]);
+        return Math.max(0, Math.min(resolution[axis] - 1, index));
+    }
+
+    @Override
+    public Accelerator refit(List<Intersectable> intersectables) {
+        // the cells depend on all the boxes - a new structure is needed
+        return new UniformGrid(intersectables);
+    }
+
+    @Override
+    public void traverse(RayQuery query) {
+        for (Intersectable item : unbounded) {
+            query.visit(item);
+            if (query.isFinished())
+                return;
+        }
+        if (bounds != null)
+            walk(query);
+    }
+
+    /**
+     * Walks along the cells the ray passes through (3D-DDA), in order, and hands the query
+     * the intersectables in those cells
+     *
+     * @param query the query of the ray
+     */
+    private void walk(RayQuery query) {
+        Ray ray = query.ray;
+        double tEnter = bounds.entryDistance(ray, query.maxDistance);
+        if (tEnter == Double.POSITIVE_INFINITY)
+            return;
+
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double[] origin = {p0.getX(), p0.getY(), p0.getZ()};
+        double[] direction = {dir.getX(), dir.getY(), dir.getZ()};
+        double[] inverse = {ray.getInverseX(), ray.getInverseY(), ray.getInverseZ()};
+        int[] signs = {ray.getSignX(), ray.getSignY(), ray.getSignZ()};
+
+        int[] cell = new int[3];
+        int[] step = new int[3];
+        double[] tNext = new double[3];
+        double[] tDelta = new double[3];
+        for (int axis = 0; axis < 3; ++axis) {
+            double entry = origin[axis] + direction[axis] * tEnter;
+            cell[axis] = cellIndex(axis, entry);
+            double d = direction[axis];
+            // a single cell along the axis is left only through the grid's exit
+            if (d == 0 || resolution[axis] == 1) {
+                step[axis] = 0;
+                tNext[axis] = Double.POSITIVE_INFINITY;
+                tDelta[axis] = Double.POSITIVE_INFINITY;
+            } else {
+                // the sign of the direction picks the border the ray leaves the cell through
+                step[axis] = 1 - 2 * signs[axis];
+                double border = bounds.getMin(axis) + (cell[axis] + 1 - signs[axis]) * cellSize[axis];
+                tNext[axis] = (border - origin[axis]) * inverse[axis];
+                tDelta[axis] = cellSize[axis] * Math.abs(inverse[axis]);
+            }
+        }
+
+        int[] marks = mailbox.newRay();
+        while (true) {
+            int[] indices = cells[(cell[2] * resolution[1] + cell[1]) * resolution[0] + cell[0]];
+            if (indices != null)
+                for (int i : indices) {
+                    if (!mailbox.mark(marks, i))
+                        continue;
+                    query.visit(items[i]);
+                    if (query.isFinished())
+                        return;
+                }
+
+            // step into the neighbour cell through the nearest border
+            int axis = tNext[0] < tNext[1]
+                    ? (tNext[0] < tNext[2] ? 0 : 2)
+                    : (tNext[1] < tNext[2] ? 1 : 2);
+            // everything up to the cell's exit was visited
+            if (query.isFinished(tNext[axis]))
+                return;
+            if (tNext[axis] > query.maxDistance || step[axis] == 0)
+                return;
+            cell[axis] += step[axis];
+            if (cell[axis] < 0 || cell[axis] >= resolution[axis])
+                return;
+            tNext[axis] += tDelta[axis];
+        }
+    }
+}
@@ -100,7 +100,7 @@ public class PointLight extends Light implements LightSource{
      */
     @Override
     public Vector getL(Point point) {
-        return point.subtract(this.position).normalize();
+        return point.subtractNormalized(this.position);
     }
 
     /**
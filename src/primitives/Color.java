@@ -11,9 +11,9 @@ package primitives;
 public class Color {
 	/**
 	 * The internal fields tx`o maintain RGB components as double numbers from 0 to
-	 * whatever...
+	 * whatever... Stored inline, so a color is a single object.
 	 */
-	private final Double3 rgb;
+	final double r, g, b;
 
 	/**
 	 * Black color = (0,0,0)
@@ -24,7 +24,7 @@ public class Color {
 	 * Default constructor - to generate Black Color (privately)
 	 */
 	private Color() {
-		rgb = Double3.ZERO;
+		r = g = b = 0;
 	}
 
 	/**
@@ -38,29 +38,21 @@ public class Color {
 	public Color(double r, double g, double b) {
 		if (r < 0 || g < 0 || b < 0)
 			throw new IllegalArgumentException("Negative color component is illegal");
-		rgb = new Double3(r, g, b);
+		this.r = r;
+		this.g = g;
+		this.b = b;
 	}
 
 
-	/**
-	 * Constructor to generate a color according to RGB components Each component in
-	 * range 0..255 (for printed white color) or more [for lights]
-	 *
-	 * @param rgb triad of Red/Green/Blue components 
-	 */
-	private Color(Double3 rgb) {
-		if (rgb.d1 < 0 || rgb.d2 < 0 || rgb.d3 < 0)
-			throw new IllegalArgumentException("Negative color component is illegal");
-		this.rgb = rgb;
-	}
-
 	/**
 	 * Constructor on base of java.awt.Color object
 	 * 
 	 * @param other java.awt.Color's source object
 	 */
 	public Color(java.awt.Color other) {
-		rgb = new Double3(other.getRed(), other.getGreen(), other.getBlue());
+		r = other.getRed();
+		g = other.getGreen();
+		b = other.getBlue();
 	}
 
 	/**
@@ -70,12 +62,23 @@ public class Color {
 	 * @return java.awt.Color object based on this Color RGB components
 	 */
 	public java.awt.Color getColor() {
-		int ir = (int) rgb.d1;
-		int ig = (int) rgb.d2;
-		int ib = (int) rgb.d3;
+		int ir = (int) r;
+		int ig = (int) g;
+		int ib = (int) b;
 		return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
 	}
 
+	/**
+	 * Operation of adding this and another color (by component), without the array
+	 * of the general {@link #add(Color...)}
+	 *
+	 * @param color the other color to add
+	 * @return new Color object which is a result of the operation
+	 */
+	public Color add(Color color) {
+		return new Color(r + color.r, g + color.g, b + color.b);
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 *
@@ -83,13 +86,13 @@ public class Color {
 	 * @return new Color object which is a result of the operation
 	 */
 	public Color add(Color... colors) {
-		double rr = rgb.d1;
-		double rg = rgb.d2;
-		double rb = rgb.d3;
+		double rr = r;
+		double rg = g;
+		double rb = b;
 		for (Color c : colors) {
-			rr += c.rgb.d1;
-			rg += c.rgb.d2;
-			rb += c.rgb.d3;
+			rr += c.r;
+			rg += c.g;
+			rb += c.b;
 		}
 		return new Color(rr, rg, rb);
 	}
@@ -103,7 +106,7 @@ public class Color {
 	public Color scale(Double3 k) {
 		if (k.d1 < 0.0 || k.d2 < 0.0 || k.d3 < 0.0)
 			throw new IllegalArgumentException("Can't scale a color by a negative number");
-		return new Color(rgb.product(k));
+		return new Color(r * k.d1, g * k.d2, b * k.d3);
 	}
 	
 	/**
@@ -115,7 +118,7 @@ public class Color {
 	public Color scale(double k) {
 		if (k < 0.0)
 			throw new IllegalArgumentException("Can't scale a color by a negative number");
-		return new Color(rgb.scale(k));
+		return new Color(r * k, g * k, b * k);
 	}
 
 	/**
@@ -127,7 +130,7 @@ public class Color {
 	public Color reduce(double k) {
 		if (k < 1)
 			throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-		return new Color(rgb.reduce(k));
+		return new Color(r / k, g / k, b / k);
 	}
 
 	/**
@@ -139,11 +142,11 @@ public class Color {
 	public Color reduce(Double3 k) {
 		if (k.d1 < 1.0 || k.d2 < 1.0 || k.d3 < 1.0)
 			throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-		return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
+		return new Color(r / k.d1, g / k.d2, b / k.d3);
 	}
 
 	@Override
 	public String toString() {
-		return "rgb:" + rgb;
+		return "rgb:(" + r + "," + g + "," + b + ")";
 	}
 }
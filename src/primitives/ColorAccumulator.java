@@ -0,0 +1,52 @@
+package primitives;
+
+/**
+ * Mutable sum of colors, for summing the contributions of many light sources
+ * into a single {@link Color} without a new color (and triad) for every product
+ * and sum on the way
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class ColorAccumulator {
+    /**
+     * RGB components of the sum
+     */
+    private double r, g, b;
+
+    /**
+     * Constructor to initialize ColorAccumulator with a starting color
+     *
+     * @param color the starting color
+     */
+    public ColorAccumulator(Color color) {
+        r = color.r;
+        g = color.g;
+        b = color.b;
+    }
+
+    /**
+     * Adds a color scaled by a triad and by a triad scaled by a number -
+     * the same as adding color.scale(k).scale(kx.scale(s))
+     *
+     * @param color the color to add
+     * @param k     first scale factor per rgb
+     * @param kx    second scale factor per rgb
+     * @param s     scale factor of the second triad
+     * @return The ColorAccumulator object itself.
+     */
+    public ColorAccumulator add(Color color, Double3 k, Double3 kx, double s) {
+        r += color.r * k.d1 * (kx.d1 * s);
+        g += color.g * k.d2 * (kx.d2 * s);
+        b += color.b * k.d3 * (kx.d3 * s);
+        return this;
+    }
+
+    /**
+     * Creates the color of the sum
+     *
+     * @return new Color object of the sum
+     */
+    public Color toColor() {
+        return new Color(r, g, b);
+    }
+}
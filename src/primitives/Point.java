@@ -1,6 +1,6 @@
 package primitives;
 
-import java.util.Objects;
+import static primitives.Util.isZero;
 
 /**
  * class representing a Point in 3D space
@@ -13,9 +13,9 @@ public class Point {
      */
     public static final Point ZERO = new Point(0, 0, 0);
     /**
-     * Quardinate in scene.
+     * Quardinates in scene, stored inline in the object.
      */
-    final protected Double3 xyz;
+    final protected double x, y, z;
 
     /**
      * Constructor to initialize Point based object with Double3 value
@@ -23,7 +23,7 @@ public class Point {
      * @param xyz {@link Double3} value
      */
     public Point(Double3 xyz) {
-        this.xyz = xyz;
+        this(xyz.d1, xyz.d2, xyz.d3);
     }
 
     /**
@@ -34,7 +34,9 @@ public class Point {
      * @param z third number value
      */
     public Point(double x, double y, double z) {
-        xyz = new Double3(x, y, z);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
@@ -44,10 +46,11 @@ public class Point {
      * @return The distance squared between the two points.
      */
     public double distanceSquared(Point point) {
-        Double3 temp = xyz.subtract(point.xyz);
-        temp = temp.product(temp);
+        double dx = x - point.x;
+        double dy = y - point.y;
+        double dz = z - point.z;
 
-        return temp.d1 + temp.d2 + temp.d3;
+        return dx * dx + dy * dy + dz * dz;
     }
 
     /**
@@ -65,17 +68,17 @@ public class Point {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Point point = (Point) o;
-        return xyz.equals(point.xyz);
+        return isZero(x - point.x) && isZero(y - point.y) && isZero(z - point.z);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(xyz);
+        return (int) Math.round(x + y + z);
     }
 
     @Override
     public String toString() {
-        return "Point " + xyz;
+        return "Point (" + x + "," + y + "," + z + ")";
     }
 
     /**
@@ -85,7 +88,7 @@ public class Point {
      * @return A new Point object.
      */
     public Point add(Vector vector) {
-        return new Point(xyz.add(vector.xyz));
+        return new Point(x + vector.x, y + vector.y, z + vector.z);
     }
 
     /**
@@ -95,7 +98,26 @@ public class Point {
      * @return A new {@link Vector} object.
      */
     public Vector subtract(Point point) {
-        return new Vector(xyz.subtract(point.xyz));
+        return new Vector(x - point.x, y - point.y, z - point.z);
+    }
+
+    /**
+     * Given a point, return the unit vector from the point to this point - the normalized
+     * {@link #subtract(Point)} without the intermediate vector
+     *
+     * @param point the point to subtract from this vector
+     * @return A new normalized {@link Vector} object.
+     * @throws IllegalArgumentException when the points are the same
+     */
+    public Vector subtractNormalized(Point point) {
+        double dx = x - point.x;
+        double dy = y - point.y;
+        double dz = z - point.z;
+        if (isZero(dx) && isZero(dy) && isZero(dz))
+            throw new IllegalArgumentException("Vector(0,0,0) is not valid");
+
+        double size = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        return Vector.normalized(dx, dy, dz, size);
     }
 
     /**
@@ -104,7 +126,7 @@ public class Point {
      * @return The value of the x coordinate.
      */
     public double getX(){
-        return xyz.d1;
+        return x;
     }
 
     /**
@@ -113,7 +135,7 @@ public class Point {
      * @return The value of the y coordinate.
      */
     public double getY(){
-        return xyz.d2;
+        return y;
     }
 
     /**
@@ -122,7 +144,7 @@ public class Point {
      * @return The value of the z coordinate.
      */
     public double getZ(){
-        return xyz.d3;
+        return z;
     }
 
 }
@@ -24,6 +24,16 @@ public class Ray {
      * Ray's direction.
      */
     private final Vector dir;
+    /**
+     * Reciprocals of the direction's coordinates, for slab tests of bounding boxes.
+     * Infinite along the axes the ray is parallel to.
+     */
+    private final double inverseX, inverseY, inverseZ;
+    /**
+     * Sign flags of the direction: 1 along the axes it is negative on (including -0), else 0.
+     * The ray enters the slab of such an axis through its maximum and leaves through its minimum.
+     */
+    private final int signX, signY, signZ;
 
     /**
      * Constructor to initialize Ray based object with its point value and vector value
@@ -34,6 +44,12 @@ public class Ray {
     public Ray(Point p0, Vector dir) {
         this.p0 = p0;
         this.dir = dir.normalize();
+        inverseX = 1 / this.dir.x;
+        inverseY = 1 / this.dir.y;
+        inverseZ = 1 / this.dir.z;
+        signX = inverseX < 0 ? 1 : 0;
+        signY = inverseY < 0 ? 1 : 0;
+        signZ = inverseZ < 0 ? 1 : 0;
     }
 
     /**
@@ -44,8 +60,20 @@ public class Ray {
      * @param dir direction
      */
     public Ray(Point p0, Vector n, Vector dir) {
-        this.p0 = p0.add(n.scale(n.dotProduct(dir) > 0 ? DELTA : -DELTA));
-        this.dir = dir.normalize();
+        this(offset(p0, n, dir), dir);
+    }
+
+    /**
+     * Moves a point by DELTA along a normal, to the side the direction goes to
+     *
+     * @param p0  the point
+     * @param n   normal vector
+     * @param dir direction
+     * @return the moved point
+     */
+    private static Point offset(Point p0, Vector n, Vector dir) {
+        double delta = n.dotProduct(dir) > 0 ? DELTA : -DELTA;
+        return new Point(p0.x + n.x * delta, p0.y + n.y * delta, p0.z + n.z * delta);
     }
 
     /**
@@ -66,6 +94,60 @@ public class Ray {
         return this.dir;
     }
 
+    /**
+     * Getter for the reciprocal of the direction's x coordinate
+     *
+     * @return 1 / x of the direction, infinite when the ray is parallel to the x slabs
+     */
+    public double getInverseX() {
+        return inverseX;
+    }
+
+    /**
+     * Getter for the reciprocal of the direction's y coordinate
+     *
+     * @return 1 / y of the direction, infinite when the ray is parallel to the y slabs
+     */
+    public double getInverseY() {
+        return inverseY;
+    }
+
+    /**
+     * Getter for the reciprocal of the direction's z coordinate
+     *
+     * @return 1 / z of the direction, infinite when the ray is parallel to the z slabs
+     */
+    public double getInverseZ() {
+        return inverseZ;
+    }
+
+    /**
+     * Getter for the sign flag of the direction's x coordinate
+     *
+     * @return 1 if the direction's x is negative, 0 otherwise
+     */
+    public int getSignX() {
+        return signX;
+    }
+
+    /**
+     * Getter for the sign flag of the direction's y coordinate
+     *
+     * @return 1 if the direction's y is negative, 0 otherwise
+     */
+    public int getSignY() {
+        return signY;
+    }
+
+    /**
+     * Getter for the sign flag of the direction's z coordinate
+     *
+     * @return 1 if the direction's z is negative, 0 otherwise
+     */
+    public int getSignZ() {
+        return signZ;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -94,7 +176,7 @@ public class Ray {
         if (isZero(delta)) {
             throw new IllegalArgumentException("t should not be ZERO");
         }
-        return this.p0.add(this.dir.scale(delta));
+        return new Point(p0.x + dir.x * delta, p0.y + dir.y * delta, p0.z + dir.z * delta);
     }
 
     /**
@@ -124,8 +206,9 @@ public class Ray {
         double ptDistance;
 
         // A for loop that goes through all the points in the list and finds the closest point to the origin.
+        // Squared distances keep the same order without the square roots.
         for (var pt : points) {
-            ptDistance = pt.point.distance(this.p0);
+            ptDistance = pt.point.distanceSquared(this.p0);
             if (ptDistance < closest) {
                 closest = ptDistance;
                 result = pt;
@@ -0,0 +1,217 @@
+package primitives;
+
+import java.util.Arrays;
+
+/**
+ * Affine transformation of the 3D space - a 4x4 matrix whose last row is (0, 0, 0, 1).
+ * Points are transformed with the translation, vectors without it.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class Transform {
+    /**
+     * The identity transformation
+     */
+    public static final Transform IDENTITY = new Transform(new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * The upper three rows of the matrix, row by row
+     */
+    private final double[] m;
+
+    /**
+     * Constructor to initialize Transform based on the upper three rows of the matrix
+     *
+     * @param m 12 values, row by row
+     */
+    private Transform(double[] m) {
+        this.m = m;
+    }
+
+    /**
+     * Constructor to initialize Transform based on a 4x4 matrix
+     *
+     * @param matrix the matrix, row by row
+     * @throws IllegalArgumentException when the matrix is not 4x4, is not affine or can't be inverted
+     */
+    public Transform(double[][] matrix) {
+        if (matrix.length != 4)
+            throw new IllegalArgumentException("Transform matrix must be 4x4");
+        for (double[] row : matrix)
+            if (row.length != 4)
+                throw new IllegalArgumentException("Transform matrix must be 4x4");
+        if (matrix[3][0] != 0 || matrix[3][1] != 0 || matrix[3][2] != 0 || matrix[3][3] != 1)
+            throw new IllegalArgumentException("Transform matrix must be affine - last row (0, 0, 0, 1)");
+
+        this.m = new double[12];
+        for (int row = 0; row < 3; ++row)
+            System.arraycopy(matrix[row], 0, m, row * 4, 4);
+        if (Util.isZero(determinant()))
+            throw new IllegalArgumentException("Transform matrix can't be inverted");
+    }
+
+    /**
+     * Creates a translation
+     *
+     * @param v the translation vector
+     * @return the transformation
+     */
+    public static Transform translation(Vector v) {
+        return new Transform(new double[]{1, 0, 0, v.getX(), 0, 1, 0, v.getY(), 0, 0, 1, v.getZ()});
+    }
+
+    /**
+     * Creates a scaling about the origin
+     *
+     * @param sx scale along x
+     * @param sy scale along y
+     * @param sz scale along z
+     * @return the transformation
+     * @throws IllegalArgumentException when one of the scales is zero
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        if (Util.isZero(sx) || Util.isZero(sy) || Util.isZero(sz))
+            throw new IllegalArgumentException("Scale can't be zero");
+        return new Transform(new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0});
+    }
+
+    /**
+     * Creates a rotation about an axis through the origin (right-hand rule)
+     *
+     * @param axis    the rotation axis
+     * @param degrees the rotation angle in degrees
+     * @return the transformation
+     */
+    public static Transform rotation(Vector axis, double degrees) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double angle = Math.toRadians(degrees);
+        double c = Math.cos(angle), s = Math.sin(angle), t = 1 - c;
+        return new Transform(new double[]{
+                t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0,
+                t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0,
+                t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0});
+    }
+
+    /**
+     * Composes this transformation with another one, which is applied after it
+     *
+     * @param next the transformation to apply after this one
+     * @return the composed transformation
+     */
+    public Transform then(Transform next) {
+        double[] a = next.m, b = this.m;
+        double[] r = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            int i = row * 4;
+            for (int col = 0; col < 4; ++col)
+                r[i + col] = a[i] * b[col] + a[i + 1] * b[4 + col] + a[i + 2] * b[8 + col];
+            r[i + 3] += a[i + 3];
+        }
+        return new Transform(r);
+    }
+
+    /**
+     * Calculates the inverse transformation
+     *
+     * @return the inverse transformation
+     */
+    public Transform inverse() {
+        double det = determinant();
+        // inverse of the linear part by cofactors
+        double[] r = new double[12];
+        r[0] = (m[5] * m[10] - m[6] * m[9]) / det;
+        r[1] = (m[2] * m[9] - m[1] * m[10]) / det;
+        r[2] = (m[1] * m[6] - m[2] * m[5]) / det;
+        r[4] = (m[6] * m[8] - m[4] * m[10]) / det;
+        r[5] = (m[0] * m[10] - m[2] * m[8]) / det;
+        r[6] = (m[2] * m[4] - m[0] * m[6]) / det;
+        r[8] = (m[4] * m[9] - m[5] * m[8]) / det;
+        r[9] = (m[1] * m[8] - m[0] * m[9]) / det;
+        r[10] = (m[0] * m[5] - m[1] * m[4]) / det;
+        // the translation is undone after the linear part
+        for (int row = 0; row < 3; ++row) {
+            int i = row * 4;
+            r[i + 3] = -(r[i] * m[3] + r[i + 1] * m[7] + r[i + 2] * m[11]);
+        }
+        return new Transform(r);
+    }
+
+    /**
+     * Determinant of the linear part of the transformation
+     *
+     * @return the determinant
+     */
+    private double determinant() {
+        return m[0] * (m[5] * m[10] - m[6] * m[9])
+                - m[1] * (m[4] * m[10] - m[6] * m[8])
+                + m[2] * (m[4] * m[9] - m[5] * m[8]);
+    }
+
+    /**
+     * Transforms a point
+     *
+     * @param p the point
+     * @return the transformed point
+     */
+    public Point applyToPoint(Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transforms a vector (without the translation)
+     *
+     * @param v the vector
+     * @return the transformed vector
+     */
+    public Vector applyToVector(Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Transforms a vector by the transpose of the linear part. Applied with the inverse
+     * transformation, it transforms normals (which must be normalized afterwards).
+     *
+     * @param v the vector
+     * @return the transformed vector
+     */
+    public Vector applyTransposeToVector(Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(
+                m[0] * x + m[4] * y + m[8] * z,
+                m[1] * x + m[5] * y + m[9] * z,
+                m[2] * x + m[6] * y + m[10] * z);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Transform transform = (Transform) o;
+        for (int i = 0; i < 12; ++i)
+            if (!Util.isZero(m[i] - transform.m[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        double sum = 0;
+        for (double value : m)
+            sum += value;
+        return (int) Math.round(sum);
+    }
+
+    @Override
+    public String toString() {
+        return "Transform{" + Arrays.toString(m) + '}';
+    }
+}
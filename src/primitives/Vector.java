@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * Vector is a line with direction and size
  *
@@ -15,7 +17,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (xyz.equals(Double3.ZERO)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("Vector(0,0,0) is not valid");
         }
     }
@@ -26,10 +28,34 @@ public class Vector extends Point {
      * @param xyz Double3 value
      */
     public Vector(Double3 xyz) {
-        super(xyz);
-        if (this.xyz.equals(Double3.ZERO)) {
-            throw new IllegalArgumentException("Vector(0,0,0) is not valid");
-        }
+        this(xyz.d1, xyz.d2, xyz.d3);
+    }
+
+    /**
+     * Constructor for the unit vector in the direction of given coordinates, without checking for the
+     * zero vector
+     *
+     * @param x    first number value
+     * @param y    second number value
+     * @param z    third number value
+     * @param size the length of the coordinates, not zero
+     */
+    private Vector(double x, double y, double z, double size) {
+        super(x / size, y / size, z / size);
+    }
+
+    /**
+     * Creates the unit vector in the direction of given coordinates whose length is already known.
+     * A vector of length 1 is never the zero vector, so it isn't checked.
+     *
+     * @param x    first number value
+     * @param y    second number value
+     * @param z    third number value
+     * @param size the length of the coordinates, not zero
+     * @return A new normalized Vector object.
+     */
+    static Vector normalized(double x, double y, double z, double size) {
+        return new Vector(x, y, z, size);
     }
 
     /**
@@ -39,7 +65,7 @@ public class Vector extends Point {
      * @return A new Vector object.
      */
     public Vector add(Vector vector) {
-        return new Vector(xyz.add(vector.xyz));
+        return new Vector(x + vector.x, y + vector.y, z + vector.z);
     }
 
     /**
@@ -49,7 +75,7 @@ public class Vector extends Point {
      * @return A new Vector object.
      */
     public Vector scale(double num) {
-        return new Vector(xyz.scale(num));
+        return new Vector(x * num, y * num, z * num);
     }
 
     /**
@@ -59,17 +85,7 @@ public class Vector extends Point {
      * @return The dot product of the two vectors.
      */
     public double dotProduct(Vector v) {
-        double u1 = xyz.d1;
-        double u2 = xyz.d2;
-
-        double u3 = xyz.d3;
-
-        double v1 = v.xyz.d1;
-        double v2 = v.xyz.d2;
-
-        double v3 = v.xyz.d3;
-
-        return (u1 * v1 + u2 * v2 + u3 * v3);
+        return x * v.x + y * v.y + z * v.z;
     }
 
     /**
@@ -79,15 +95,7 @@ public class Vector extends Point {
      * @return A new Vector object.
      */
     public Vector crossProduct(Vector v) {
-        double u1 = xyz.d1;
-        double u2 = xyz.d2;
-        double u3 = xyz.d3;
-
-        double v1 = v.xyz.d1;
-        double v2 = v.xyz.d2;
-        double v3 = v.xyz.d3;
-
-        return new Vector(u2 * v3 - u3 * v2, u3 * v1 - u1 * v3, u1 * v2 - u2 * v1);
+        return new Vector(y * v.z - z * v.y, z * v.x - x * v.z, x * v.y - y * v.x);
     }
 
     /**
@@ -96,11 +104,7 @@ public class Vector extends Point {
      * @return The length of the vector.
      */
     public double lengthSquared() {
-        double u1 = xyz.d1;
-        double u2 = xyz.d2;
-        double u3 = xyz.d3;
-
-        return u1 * u1 + u2 * u2 + u3 * u3;
+        return x * x + y * y + z * z;
     }
 
     /**
@@ -119,13 +123,16 @@ public class Vector extends Point {
      */
     public Vector normalize() {
         double size = length();
+        // the vector is normalized already - dividing by 1 wouldn't change it
+        if (size == 1)
+            return this;
 
-        return new Vector(xyz.reduce(size));
+        return normalized(x, y, z, size);
     }
 
     @Override
     public String toString() {
-        return "Vector " + xyz;
+        return "Vector (" + x + "," + y + "," + z + ")";
     }
 
     @Override
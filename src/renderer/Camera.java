@@ -6,7 +6,12 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.time.Instant;
 import java.util.MissingResourceException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static primitives.Util.isZero;
 
@@ -56,6 +61,14 @@ public class Camera {
      * Number of threads
      */
     private int threadsCount = 1;
+    /**
+     * Edge of the tiles which the threads render, in pixels
+     */
+    private int tileSize = 16;
+    /**
+     * Executor of the tile tasks, null for rendering on the camera's own threads
+     */
+    private Executor executor = null;
     /**
      * Progress of the rendering.
      */
@@ -172,87 +185,146 @@ public class Camera {
      * @return A ray from the camera to the pixel.
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
-        // Ratio (pixel width & height)
-        double rY = (double) this.height / nY;
-        double rX = (double) this.height / nX;
-
-        // Image center
-        Point Pc = this.p0.add(this.vTo.scale(this.distance));
-
-        // Pixel[i,j] center
-        Point Pij = Pc;
-
-        double yI = -(i - ((nY - 1) / 2d)) * rY;
-        double xJ = (j - ((nX - 1) / 2d)) * rX;
-
-        // move to middle of pixel i,j
-        if (!isZero(xJ))
-            Pij = Pij.add(this.vRight.scale(xJ));
-        if (!isZero(yI))
-            Pij = Pij.add(this.vUp.scale(yI));
+        return rayGenerator(nX, nY).constructRay(j, i);
+    }
 
-        // return ray from camera to viewPlane coordinate (i, j)
-        return new Ray(this.p0, Pij.subtract(this.p0));
+    /**
+     * Creates the generator of the rays through the pixels of the view plane,
+     * when the view plane is divided into nX by nY rectangular cells
+     *
+     * @param nX number of pixels in the columns
+     * @param nY number of pixels in the rows
+     * @return the ray generator
+     */
+    private RayGenerator rayGenerator(int nX, int nY) {
+        return new RayGenerator(this.p0, this.vTo, this.vUp, this.vRight, this.distance, this.width, this.height,
+                nX, nY);
     }
 
     /**
-     * This function constructs a ray from the camera through the pixel at (nX, nY) and then traces that ray through the
-     * scene to determine the color of the pixel
+     * This function constructs the rays from the camera through a span of pixels of a row and then traces them
+     * through the scene to determine the colors of the pixels
      *
-     * @param nX  the x coordinate of the pixel on the screen
-     * @param nY  the y-coordinate of the pixel in the image
-     * @param col the column of the pixel
-     * @param row the row of the pixel in the image
-     * @return The color of the pixel.
-     */
-    private Color castRay(int nX, int nY, int col, int row) {
-        Ray ray = constructRay(nX, nY, col, row);
-        Color pixelColor = this.rayTracer.traceRay(ray);
-        return pixelColor;
+     * @param rayTracer the ray tracer of the rendering
+     * @param rays      the ray generator of the rendering
+     * @param col0      first column of the span
+     * @param col1      end of the span (exclusive)
+     * @param row       the row of the pixels in the image
+     * @param colors    the colors of the pixels
+     * @param offset    index in the colors of the first pixel of the span
+     */
+    private static void castRays(RayTracerBase rayTracer, RayGenerator rays, int col0, int col1, int row,
+                                 Color[] colors, int offset) {
+        double[] directions = new double[(col1 - col0) * 3];
+        rays.fillRow(col0, col1, row, directions, 0);
+        for (int i = 0; i < col1 - col0; ++i)
+            colors[offset + i] = rayTracer.traceRay(rays.toRay(directions, i * 3));
     }
 
     /**
-     * The function iterates over all the pixels in the image and casts a ray through each pixel
+     * The function iterates over all the pixels in the image and casts a ray through each pixel.
+     * Every call is a separate rendering session, so several cameras sharing a scene may render
+     * at the same time from different threads, as long as a camera is not reconfigured while it renders.
      *
      * @return The camera itself.
      */
     public Camera renderImage() {
+        // The rendering works on its own copy of the settings
+        ImageWriter imageWriter = this.imageWriter;
+        RayTracerBase rayTracer = this.rayTracer;
+        Executor executor = this.executor;
         // Checks that imageWriter and rayTracer fields isn't empty
-        if (this.imageWriter == null)
+        if (imageWriter == null)
             throw new MissingResourceException(RESOURCE_ERROR, RENDER_CLASS, IMAGE_WRITER_COMPONENT);
-        if (this.rayTracer == null)
+        if (rayTracer == null)
             throw new MissingResourceException(RESOURCE_ERROR, RENDER_CLASS, RAY_TRACER_COMPONENT);
         // Rendering the image
-        int nX = this.imageWriter.getNx();
-        int nY = this.imageWriter.getNy();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        RayGenerator rays = rayGenerator(nX, nY);
+        TileScheduler.RowTracer tracer = (col0, col1, row, colors, offset) ->
+                castRays(rayTracer, rays, col0, col1, row, colors, offset);
         // Checking if we try to use threads.
-        if(threadsCount == 1) {
+        if (executor != null) {
+            //rendering image with a task per tile on the given executor
+            new TileScheduler(nX, nY, tileSize, threadsCount).render(executor, tracer, imageWriter::writePixel,
+                    printInterval);
+        } else if(threadsCount == 1) {
             //rendering image without using of threads (by-default)
+            Color[] colors = new Color[nX];
             // The row of the pixel in the image.
             for (int row = 0; row < nY; row++) {
+                tracer.trace(0, nX, row, colors, 0);
                 // The column of the pixel in the image.
-                for (int col = 0; col < nX; col++) {
-                    Color pixelColor = castRay(nX, nY, col, row);
-                    this.imageWriter.writePixel(col, row, pixelColor);
-                }
+                for (int col = 0; col < nX; col++)
+                    imageWriter.writePixel(col, row, colors[col]);
             }
         } else{
-            //rendering image with using of threads
-            Pixel.initialize(nY, nX, printInterval);
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone()) {
-                        Color pixelColor = castRay(nX, nY, pixel.col, pixel.row);
-                        imageWriter.writePixel(pixel.col, pixel.row, pixelColor);
-                    }
-
-                }).start();
-            }
-            Pixel.waitToFinish();
+            //rendering image with using of threads, tile by tile
+            new TileScheduler(nX, nY, tileSize, threadsCount).render(tracer, imageWriter::writePixel, printInterval);
         }
         return this;
     }
 
+    /**
+     * Starts rendering the image without blocking the caller. The tiles run on the executor of
+     * the camera, or on threads of the rendering itself if none was set. Cancelling the returned
+     * future stops the tiles before their next row; rows which are being written may still be
+     * written into the image writer after the cancellation.
+     *
+     * @return future of the rendered frame
+     */
+    public CompletableFuture<RenderedFrame> renderImageAsync() {
+        return renderImageAsync(null);
+    }
+
+    /**
+     * Starts rendering the image without blocking the caller. The tiles run on the executor of
+     * the camera, or on threads of the rendering itself if none was set. Cancelling the returned
+     * future stops the tiles before their next row; rows which are being written may still be
+     * written into the image writer after the cancellation. When the deadline passes, the tiles stop
+     * tracing and the future completes with the partial image and its coverage mask.
+     *
+     * @param deadline wall-clock deadline of the rendering, null for none
+     * @return future of the rendered frame
+     */
+    public CompletableFuture<RenderedFrame> renderImageAsync(Instant deadline) {
+        // The rendering works on its own copy of the settings
+        ImageWriter imageWriter = this.imageWriter;
+        RayTracerBase rayTracer = this.rayTracer;
+        Executor executor = this.executor;
+        // Checks that imageWriter and rayTracer fields isn't empty
+        if (imageWriter == null)
+            throw new MissingResourceException(RESOURCE_ERROR, RENDER_CLASS, IMAGE_WRITER_COMPONENT);
+        if (rayTracer == null)
+            throw new MissingResourceException(RESOURCE_ERROR, RENDER_CLASS, RAY_TRACER_COMPONENT);
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        RayGenerator rays = rayGenerator(nX, nY);
+        boolean[] coverage = new boolean[nX * nY];
+
+        ExecutorService pool = executor == null ? Executors.newFixedThreadPool(threadsCount) : null;
+        CompletableFuture<Void> done = new TileScheduler(nX, nY, tileSize, threadsCount).start(
+                pool == null ? executor : pool,
+                (col0, col1, row, colors, offset) -> castRays(rayTracer, rays, col0, col1, row, colors, offset),
+                (col, row, color) -> {
+                    imageWriter.writePixel(col, row, color);
+                    coverage[row * nX + col] = true;
+                },
+                new Pixel(nY, nX, 0),
+                deadline == null ? Long.MAX_VALUE : deadline.toEpochMilli());
+        if (pool != null)
+            done.whenComplete((v, e) -> pool.shutdown());
+
+        CompletableFuture<RenderedFrame> frame = done.thenApply(v -> new RenderedFrame(imageWriter, coverage));
+        // cancelling the frame cancels the rendering
+        frame.whenComplete((f, e) -> {
+            if (frame.isCancelled())
+                done.cancel(false);
+        });
+        return frame;
+    }
+
     /**
      * If the image writer is not null, write to image.
      *
@@ -310,4 +382,32 @@ public class Camera {
         this.threadsCount = n;
         return this;
     }
+
+    /**
+     * Set the edge of the square tiles which the threads render.
+     *
+     * @param tileSize edge of a tile in pixels
+     * @return The camera object itself.
+     * @throws IllegalArgumentException if the edge is not positive
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Set the executor which runs every tile as a separate task, for renderings which mix the
+     * tracing with blocking work (e.g. an executor of a thread per task). The number of tiles
+     * which are traced at the same time is still bounded by the number of threads, and the
+     * first failing tile stops the others.
+     *
+     * @param executor executor of the tile tasks, null for rendering on the camera's own threads
+     * @return The camera object itself.
+     */
+    public Camera setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
 }
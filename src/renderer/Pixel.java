@@ -1,107 +1,91 @@
 package renderer;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
- * Pixel is a helper class. It is used for multi-threading in the renderer and
- * for follow up its progress.
- * There is a main follow-up object and several secondary objects - one in each
- * thread.
+ * Pixel is a helper class. It is used for follow up the progress of the
+ * multi-threaded renderer. The pixels are handed to the threads in tiles by
+ * {@link TileScheduler}, and the threads report the done pixels tile by tile.
+ * Every rendering has its own follow-up object, so several renderings may run
+ * in parallel.
  * 
  * @author Dan
  *
  */
 class Pixel {
-	private static int maxRows = 0;
-	private static int maxCols = 0;
-	private static long totalPixels = 0l;
+	private final long totalPixels;
 
-	private static volatile int cRow = 0;
-	private static volatile int cCol = -1;
-	private static volatile long pixels = 0l;
-	private static volatile long last = -1l;
-	private static volatile int lastPrinted = -1;
+	private volatile long pixels = 0l;
+	private long last = -1l;
+	private int lastPrinted = -1;
 
-	private static boolean print = false;
-	private static long printInterval = 100l;
+	private final boolean print;
+	private final long printInterval;
 	private static final String PRINT_FORMAT = "%5.1f%%\r";
-	private static Object mutexNext = new Object();
-	private static Object mutexPixels = new Object();
-
-	int row;
-	int col;
+	private final Object mutexPixels = new Object();
 
 	/**
-	 * Initialize pixel data for multi-threading
+	 * Initialize pixel data for a multi-threaded rendering
 	 * 
 	 * @param maxRows  the amount of pixel rows
 	 * @param maxCols  the amount of pixel columns
 	 * @param interval print time interval in seconds, 0 if printing is not required
 	 */
-	static void initialize(int maxRows, int maxCols, double interval) {
-		Pixel.maxRows = maxRows;
-		Pixel.maxCols = maxCols;
-		Pixel.totalPixels = (long) maxRows * maxCols;
-
-		cRow = 0;
-		cCol = -1;
-		pixels = 0;
-		printInterval = (int) (interval * 1000);
-		print = printInterval != 0;
+	Pixel(int maxRows, int maxCols, double interval) {
+		this.totalPixels = (long) maxRows * maxCols;
+		this.printInterval = (int) (interval * 1000);
+		this.print = printInterval != 0;
 	}
 
 	/**
-	 * Function for thread-safe manipulating of main follow-up Pixel object - this
-	 * function is critical section for all the threads, and static data is the
-	 * shared data of this critical section.<br/>
-	 * The function provides next available pixel number each call.
+	 * Finish processing of pixels - called once for a whole tile, so the threads
+	 * rarely meet in this critical section
 	 * 
-	 * @return true if next pixel is allocated, false if there are no more pixels
+	 * @param count the amount of the finished pixels
 	 */
-	public boolean nextPixel() {
-		synchronized (mutexNext) {
-			if (cRow == maxRows)
-				return false;
-			++cCol;
-			if (cCol < maxCols) {
-				row = cRow;
-				col = cCol;
-				return true;
-			}
-			cCol = 0;
-			++cRow;
-			if (cRow < maxRows) {
-				row = cRow;
-				col = cCol;
-				return true;
-			}
-			return false;
-		}
-	}
-
-	/**
-	 * Finish pixel processing
-	 */
-	static void pixelDone() {
+	void pixelsDone(int count) {
 		synchronized (mutexPixels) {
-			++pixels;
+			pixels += count;
 		}
 	}
 
 	/**
-	 * Wait for all pixels to be done and print the progress percentage - must be
-	 * run from the main thread
+	 * Wait for the rendering task to finish and print the progress percentage
+	 * meanwhile - must be run from the main thread
+	 * 
+	 * @param task the rendering task
+	 * @throws IllegalStateException when the waiting thread is interrupted
 	 */
-	public static void waitToFinish() {
+	void waitToFinish(Future<?> task) {
 		if (print)
 			System.out.printf(PRINT_FORMAT, 0d);
 
-		while (last < totalPixels) {
-			printPixel();
-			try {
-				Thread.sleep(printInterval);
-			} catch (InterruptedException ignore) {
-				if (print)
-					System.out.print("");
+		try {
+			while (true) {
+				try {
+					if (print)
+						task.get(printInterval, TimeUnit.MILLISECONDS);
+					else
+						task.get();
+					break;
+				} catch (TimeoutException ignore) {
+					printPixel();
+				}
 			}
+		} catch (InterruptedException e) {
+			task.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Rendering was interrupted", e);
+		} catch (ExecutionException e) {
+			// a failure of a rendering thread is the failure of the rendering
+			if (e.getCause() instanceof RuntimeException cause)
+				throw cause;
+			if (e.getCause() instanceof Error cause)
+				throw cause;
+			throw new IllegalStateException(e.getCause());
 		}
 		if (print)
 			System.out.println("100.0%");
@@ -110,7 +94,7 @@ class Pixel {
 	/**
 	 * Print pixel progress percentage
 	 */
-	public static void printPixel() {
+	void printPixel() {
 		long current = pixels;
 		if (print && last != current) {
 			int percentage = (int) (1000l * current / totalPixels);
@@ -0,0 +1,137 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Generator of the primary rays of a rendering. The view plane basis - its center and the steps
+ * between the pixels along the right and the up directions - is calculated once, and the direction
+ * through a pixel then costs a few multiplications, without any temporary points or vectors.
+ * The directions of a whole row or tile may be filled at once into an array of coordinates.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class RayGenerator {
+    /**
+     * Head of all the rays - the camera's position
+     */
+    private final Point p0;
+    /**
+     * Vector from the camera to the view plane center
+     */
+    private final double centerX, centerY, centerZ;
+    /**
+     * Right direction of the camera
+     */
+    private final double rightX, rightY, rightZ;
+    /**
+     * Up direction of the camera
+     */
+    private final double upX, upY, upZ;
+    /**
+     * Width and height of a pixel
+     */
+    private final double rX, rY;
+    /**
+     * Column and row of the view plane center, in pixels
+     */
+    private final double middleCol, middleRow;
+
+    /**
+     * Constructor for RayGenerator
+     *
+     * @param p0       the camera's position
+     * @param vTo      the camera's forward direction
+     * @param vUp      the camera's up direction
+     * @param vRight   the camera's right direction
+     * @param distance distance of the view plane from the camera
+     * @param width    width of the view plane
+     * @param height   height of the view plane
+     * @param nX       number of pixels in the columns
+     * @param nY       number of pixels in the rows
+     */
+    RayGenerator(Point p0, Vector vTo, Vector vUp, Vector vRight, double distance, double width, double height,
+                 int nX, int nY) {
+        this.p0 = p0;
+        centerX = vTo.getX() * distance;
+        centerY = vTo.getY() * distance;
+        centerZ = vTo.getZ() * distance;
+        rightX = vRight.getX();
+        rightY = vRight.getY();
+        rightZ = vRight.getZ();
+        upX = vUp.getX();
+        upY = vUp.getY();
+        upZ = vUp.getZ();
+        rX = width / nX;
+        rY = height / nY;
+        middleCol = (nX - 1) / 2d;
+        middleRow = (nY - 1) / 2d;
+    }
+
+    /**
+     * Construct a ray through the center of a pixel
+     *
+     * @param col column of the pixel
+     * @param row row of the pixel
+     * @return the ray from the camera through the pixel
+     */
+    Ray constructRay(int col, int row) {
+        double xJ = (col - middleCol) * rX;
+        double yI = -(row - middleRow) * rY;
+        return new Ray(p0, new Vector(
+                centerX + rightX * xJ + upX * yI,
+                centerY + rightY * xJ + upY * yI,
+                centerZ + rightZ * xJ + upZ * yI));
+    }
+
+    /**
+     * Fills the normalized directions of the rays through a span of pixels of a row
+     *
+     * @param col0       first column of the span
+     * @param col1       end of the span (exclusive)
+     * @param row        row of the pixels
+     * @param directions the coordinates of the directions, x, y and z of one pixel after the other
+     * @param offset     index in the array of the first coordinate of the span
+     */
+    void fillRow(int col0, int col1, int row, double[] directions, int offset) {
+        double yI = -(row - middleRow) * rY;
+        double rowX = upX * yI, rowY = upY * yI, rowZ = upZ * yI;
+        for (int col = col0; col < col1; ++col, offset += 3) {
+            double xJ = (col - middleCol) * rX;
+            double x = centerX + rightX * xJ + rowX;
+            double y = centerY + rightY * xJ + rowY;
+            double z = centerZ + rightZ * xJ + rowZ;
+            double size = Math.sqrt(x * x + y * y + z * z);
+            directions[offset] = x / size;
+            directions[offset + 1] = y / size;
+            directions[offset + 2] = z / size;
+        }
+    }
+
+    /**
+     * Fills the normalized directions of the rays through a tile of pixels, row by row
+     *
+     * @param col0       first column of the tile
+     * @param row0       first row of the tile
+     * @param col1       end of the columns of the tile (exclusive)
+     * @param row1       end of the rows of the tile (exclusive)
+     * @param directions the coordinates of the directions, x, y and z of one pixel after the other
+     */
+    void fillTile(int col0, int row0, int col1, int row1, double[] directions) {
+        int rowLength = (col1 - col0) * 3;
+        for (int row = row0, offset = 0; row < row1; ++row, offset += rowLength)
+            fillRow(col0, col1, row, directions, offset);
+    }
+
+    /**
+     * Creates the ray of a filled direction
+     *
+     * @param directions the coordinates of the directions
+     * @param offset     index in the array of the direction's x coordinate
+     * @return the ray from the camera in the direction
+     */
+    Ray toRay(double[] directions, int offset) {
+        return new Ray(p0, new Vector(directions[offset], directions[offset + 1], directions[offset + 2]));
+    }
+}
@@ -4,9 +4,7 @@ import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 
-import java.util.List;
-
-import geometries.Intersectable.GeoPoint;
+import geometries.Hit;
 
 import static primitives.Util.alignZero;
 
@@ -47,24 +45,20 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     Color traceRay(Ray ray) {
-        var intersections = scene.getGeometries().findGeoIntersections(ray);
-        if (intersections == null) {
-            return scene.getBackground();
-        }
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.getBackground() : calcColor(closestPoint, ray);
+        Hit closestHit = findClosestIntersection(ray);
+        return closestHit == null ? scene.getBackground() : calcColor(closestHit, ray);
     }
 
     /**
      * It calculates the color of a point on a surface, by calculating the color of the point, and adding the ambient light
      * to it
      *
-     * @param closestPoint The closest point to the ray's head.
+     * @param closestHit The closest hit to the ray's head.
      * @param ray the ray that was sent from the camera to the scene
      * @return The color of the closest point.
      */
-    private Color calcColor(GeoPoint closestPoint, Ray ray) {
-        return calcColor(closestPoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
+    private Color calcColor(Hit closestHit, Ray ray) {
+        return calcColor(closestHit, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
                 .add(scene.getAmbientLight().getIntensity());
     }
 
@@ -78,7 +72,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @param k how much to take the calculated color
      * @return The color of the intersection point.
      */
-    private Color calcColor(GeoPoint intersection, Ray ray, int level, Double3 k) {
+    private Color calcColor(Hit intersection, Ray ray, int level, Double3 k) {
         Color color = calcLocalEffects(intersection, ray, k);
         return 1 == level ? color : color.add(calcGlobalEffects(intersection, ray.getDir(), level, k));
     }
@@ -87,23 +81,24 @@ public class RayTracerBasic extends RayTracerBase {
      * It calculates the color of the point by calculating the color of the reflected ray and the color of the refracted
      * ray
      *
-     * @param gp The closest intersection point.
+     * @param hit The closest hit.
      * @param v the ray's direction
      * @param level the recursion level.
      * @param k how much to take the calculated color
      * @return The color of the point.
      */
-    private Color calcGlobalEffects(GeoPoint gp, Vector v, int level, Double3 k) {
+    private Color calcGlobalEffects(Hit hit, Vector v, int level, Double3 k) {
         Color color = Color.BLACK;
-        Vector n = gp.geometry.getNormal(gp.point);
-        Material material = gp.geometry.getMaterial();
-        Double3 kkr = material.getKr().product(k);
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K))
-            color = calcGlobalEffect(constructReflectedRay(gp.point, v, n), level, material.getKr(), kkr);
-        Double3 kkt = material.getKt().product(k);
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K))
-            color = color.add(
-                    calcGlobalEffect(constructRefractedRay(gp.point, v, n), level, material.getKt(), kkt));
+        Material material = hit.getGeometry().getMaterial();
+        // the attenuation is created only for the rays which are traced
+        Double3 kr = material.getKr();
+        if (!kr.productLowerThan(k, MIN_CALC_COLOR_K))
+            color = calcGlobalEffect(constructReflectedRay(hit.getPoint(), v, hit.getNormal()), level,
+                    kr, kr.product(k));
+        Double3 kt = material.getKt();
+        if (!kt.productLowerThan(k, MIN_CALC_COLOR_K))
+            color = color.add(calcGlobalEffect(constructRefractedRay(hit.getPoint(), v, hit.getNormal()), level,
+                    kt, kt.product(k)));
         return color;
     }
 
@@ -120,22 +115,21 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The color of the closest intersection point.
      */
     private Color calcGlobalEffect(Ray ray, int level, Double3 kx, Double3 kkx) {
-        GeoPoint gp = findClosestIntersection(ray);
-        return (gp == null ? scene.getBackground() : calcColor(gp, ray, level-1, kkx)
+        Hit hit = findClosestIntersection(ray);
+        return (hit == null ? scene.getBackground() : calcColor(hit, ray, level-1, kkx)
         ).scale(kx);
     }
 
     /**
-     * It finds the closest intersection point of a ray with the scene's geometries
+     * It finds the closest hit of a ray with the scene's geometries.
+     * The hit point and the normal are calculated later, only for this hit.
      *
      * @param ray The ray that we want to find the closest intersection to.
-     * @return The closest intersection point.
+     * @return The closest hit, or null if there is none.
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-        if(intersections == null)
-            return null;
-        return ray.findClosestGeoPoint(intersections); //returns closest point
+    private Hit findClosestIntersection(Ray ray) {
+        Hit hit = new Hit();
+        return scene.getGeometries().findClosestHit(ray, Double.POSITIVE_INFINITY, hit) ? hit : null;
     }
 
     /**
@@ -154,7 +148,8 @@ public class RayTracerBasic extends RayTracerBase {
         }
 
         // r = v - 2 *(v*n)*n
-        Vector r = v.subtract(n.scale(2*vn));
+        double s = 2 * vn;
+        Vector r = new Vector(v.getX() - n.getX() * s, v.getY() - n.getY() * s, v.getZ() - n.getZ() * s);
         return new Ray(point, n, r);
     }
 
@@ -174,140 +169,114 @@ public class RayTracerBasic extends RayTracerBase {
     /**
      * Calculates local effects of light sources on a certain point
      *
-     * @param gp  The intersection point
+     * @param hit The hit of the ray
      * @param ray the ray that hit the geometry
      * @return The color of the point.
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Color color = gp.geometry.getEmission();
+    private Color calcLocalEffects(Hit hit, Ray ray, Double3 k) {
+        Color emission = hit.getGeometry().getEmission();
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = hit.getNormal();
 
         double nv = alignZero(n.dotProduct(v));
 
         // This is a check to see if the ray is hitting the geometry from the inside.
         if (nv == 0)
-            return color;
+            return emission;
 
-        Material material = gp.geometry.getMaterial();
+        Material material = hit.getGeometry().getMaterial();
+        Point point = hit.getPoint();
 
         // Calculates the color of a point on a surface,
         // by adding the emission of the surface to the sum of
-        // the diffuse and specular colors of the surface
+        // the diffuse and specular colors of the surface.
+        // The sum is kept in raw components, so only the final color is created.
+        ColorAccumulator color = new ColorAccumulator(emission);
         for (LightSource lightSource : scene.getLights()) {
-            Vector l = lightSource.getL(gp.point);
+            Vector l = lightSource.getL(point);
             double nl = alignZero(n.dotProduct(l));
             if (nl * nv > 0) { // sign(nl) == sing(nv)
 
-                Double3 ktr = transparency(gp,lightSource, l, n);
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K) ) {
-                    Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-                    color = color.add(
-                            iL.scale(calcDiffusive(material, nl)),
-                            iL.scale(calcSpecular(material, n, l, nl, v)));
+                Double3 ktr = transparency(point, lightSource, l, n);
+                if (!ktr.productLowerThan(k, MIN_CALC_COLOR_K)) {
+                    Color iL = lightSource.getIntensity(point);
+                    color.add(iL, ktr, material.getKd(), calcDiffusive(nl));
+                    double specular = calcSpecular(material, n, l, nl, v);
+                    if (specular > 0)
+                        color.add(iL, ktr, material.getKs(), specular);
                 }
             }
         }
 
-        return color;
+        return color.toColor();
     }
 
     /**
-     * Calculate the specular component of the light reflected from the surface of the object.
+     * Calculate the specular component of the light reflected from the surface of the object,
+     * to be scaled by the specular attenuation of the material.
+     * The reflected direction is calculated in raw components, without creating it.
      *
      * @param material the material of the object
      * @param n        normal vector
      * @param l        direction from light to point
      * @param nl       dot-product of the normal vector and the light vector
      * @param v        view vector
-     * @return The specular component factor.
+     * @return The specular component factor, 0 when viewed from the direction opposite to the reflection.
      */
-    private Double3 calcSpecular(Material material, Vector n, Vector l, double nl, Vector v) {
-        Vector r = l.add(n.scale(-2 * nl)); // nl must be not zero!
-        double minusVR = -alignZero(r.dotProduct(v));
+    private double calcSpecular(Material material, Vector n, Vector l, double nl, Vector v) {
+        // r = l - 2 * (n*l) * n, nl must be not zero!
+        double s = -2 * nl;
+        double rx = l.getX() + n.getX() * s, ry = l.getY() + n.getY() * s, rz = l.getZ() + n.getZ() * s;
+        double minusVR = -alignZero(rx * v.getX() + ry * v.getY() + rz * v.getZ());
         if (minusVR <= 0)
-            return Double3.ZERO; // view from direction opposite to r vector
-        return material.getKs().scale(Math.pow(minusVR, material.getShininess()));
+            return 0; // view from direction opposite to r vector
+        return Math.pow(minusVR, material.getShininess());
     }
 
     /**
-     * Calculates Diffusive component of light reflection
+     * Calculates Diffusive component of light reflection,
+     * to be scaled by the diffusive attenuation of the material.
      *
-     * @param material The material of the object that the ray hit.
-     * @param nl       the dot-product of the normal and the light direction
+     * @param nl the dot-product of the normal and the light direction
      * @return The diffuse component factor.
      */
-    private Double3 calcDiffusive(Material material, double nl) {
-        nl = Math.abs(nl);
-        return material.getKd().scale(nl);
+    private double calcDiffusive(double nl) {
+        return Math.abs(nl);
     }
 
     /**
      * The function checks returns if the point is unshaded or shaded.
      *
-     * @param gp          The point on the geometry that we're shading
+     * @param point       The point on the geometry that we're shading
      * @param lightSource The light source that we're checking if it's shaded or not.
      * @param l           The vector from the point to the light source
      * @param n           the normal vector of the point
      * @return true if the point is unshaded, and false if it is shaded.
      */
-    private boolean unshaded(GeoPoint gp, LightSource lightSource, Vector l, Vector n) {
-        Point point = gp.point;
-        Vector lightDirection = l.scale(-1); // from point to light source
-        Ray lightRay = new Ray(point, n, lightDirection);
-
-        // Calculates the maximum distance from the ray to the surface
-        double maxDistance = lightSource.getDistance(point);
-
-        // Get the intersections
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxDistance);
-
-        if (intersections == null)
-            return true;
-
-        for (var intersection: intersections) {
-            if(intersection.geometry.getMaterial().getKt().lowerThan(MIN_CALC_COLOR_K))
-                return false;
-        }
-        return true;
+    private boolean unshaded(Point point, LightSource lightSource, Vector l, Vector n) {
+        return !transparency(point, lightSource, l, n).lowerThan(MIN_CALC_COLOR_K);
     }
 
     /**
      * The function calculates the transparency of the point.
+     * The occlusion query stops at the first opaque blocker between the point and the light source.
      *
-     * @param gp          The point on the surface of the geometry
+     * @param point       The point on the surface of the geometry
      * @param lightSource The light source
      * @param l           The vector from the point to the light source
      * @param n           The normal vector of the point
      * @return The transparent level of the point, between 0 and 1.
      */
-    private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n) {
+    private Double3 transparency(Point point, LightSource lightSource, Vector l, Vector n) {
         Vector lightDirection = l.scale(-1); // from point to light source
 
-        Point point = gp.point;
-
         // This is a ray that is sent from the point to the light source.
         Ray lightRay = new Ray(point, n, lightDirection);
 
         // Calculates the maximum distance from the ray to the surface
         double maxDistance = lightSource.getDistance(point);
 
-        // Get the intersections
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxDistance);
-
-        if (intersections == null)
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-        // loop over intersections and for each intersection which is closer to the
-        // point than the light source multiply ktr by kt of its geometry.
-        // Performance: if you get close to 0 – it’s time to get out (return 0)
-        for (var geo : intersections) {
-            ktr = ktr.product(geo.geometry.getMaterial().getKt());
-            if (ktr.lowerThan(MIN_CALC_COLOR_K))
-                return Double3.ZERO;
-        }
-        return ktr;
+        return scene.getGeometries().findTransparency(lightRay, maxDistance, INITIAL_K, MIN_CALC_COLOR_K);
     }
 
 }
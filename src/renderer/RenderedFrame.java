@@ -0,0 +1,77 @@
+package renderer;
+
+/**
+ * Result of an asynchronous rendering - the image writer which holds the rendered image, and a
+ * coverage mask of the pixels which were rendered. A rendering which was stopped by its deadline
+ * gives a partial image, whose pixels outside the mask were not written.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+public class RenderedFrame {
+    /**
+     * The image writer which holds the image
+     */
+    private final ImageWriter imageWriter;
+    /**
+     * Whether each pixel was rendered, row by row
+     */
+    private final boolean[] coverage;
+    /**
+     * Number of the rendered pixels
+     */
+    private final int coveredPixels;
+
+    /**
+     * Constructor for RenderedFrame
+     *
+     * @param imageWriter the image writer which holds the image
+     * @param coverage    whether each pixel was rendered, row by row
+     */
+    RenderedFrame(ImageWriter imageWriter, boolean[] coverage) {
+        this.imageWriter = imageWriter;
+        this.coverage = coverage;
+        int count = 0;
+        for (boolean covered : coverage)
+            if (covered)
+                ++count;
+        this.coveredPixels = count;
+    }
+
+    /**
+     * Getter for the image writer which holds the image
+     *
+     * @return the image writer
+     */
+    public ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
+    /**
+     * Checks whether a pixel was rendered
+     *
+     * @param col column of the pixel
+     * @param row row of the pixel
+     * @return true if the pixel was rendered
+     */
+    public boolean isCovered(int col, int row) {
+        return coverage[row * imageWriter.getNx() + col];
+    }
+
+    /**
+     * Getter for the number of the rendered pixels
+     *
+     * @return number of the rendered pixels
+     */
+    public int getCoveredPixels() {
+        return coveredPixels;
+    }
+
+    /**
+     * Checks whether all the pixels were rendered
+     *
+     * @return true if the image is complete
+     */
+    public boolean isComplete() {
+        return coveredPixels == coverage.length;
+    }
+}
@@ -0,0 +1,367 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scheduler of a multithreaded rendering. The image is split into square tiles, which are ordered
+ * along a Morton (Z-order) curve, so tiles which are close in the order are close in the image.
+ * The tiles are rendered on a work-stealing {@link ForkJoinPool}: a worker splits its range of
+ * tiles in halves and works on the first half, and idle workers steal the other halves.
+ * A worker therefore keeps rendering neighbouring pixels, and the workers share nothing
+ * but the progress, which is reported once per tile. Every rendering has its own pool and
+ * progress, so several renderings may run in parallel.
+ * <p>
+ * For renderings which mix the tracing with blocking work, the tiles may instead be run as
+ * separate tasks on a given executor (e.g. a thread per task). Only the tracing of a tile is
+ * bounded by the number of threads, the tile is written after its tracing permit is released.
+ * The first failing tile stops the tiles which did not finish yet, and the rendering completes
+ * once all the tiles stopped. Such a rendering may also be started without waiting for it, and
+ * then be cancelled or limited by a deadline.
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class TileScheduler {
+    /**
+     * Tracer of the colors of a span of pixels of a row
+     */
+    interface RowTracer {
+        /**
+         * Traces the colors of a span of pixels of a row of the image
+         *
+         * @param col0   first column of the span
+         * @param col1   end of the span (exclusive)
+         * @param row    row of the pixels
+         * @param colors the traced colors
+         * @param offset index in the colors of the first pixel of the span
+         */
+        void trace(int col0, int col1, int row, Color[] colors, int offset);
+    }
+
+    /**
+     * Writer of a single pixel
+     */
+    interface PixelWriter {
+        /**
+         * Writes a pixel of the image
+         *
+         * @param col   column of the pixel
+         * @param row   row of the pixel
+         * @param color the color of the pixel
+         */
+        void write(int col, int row, Color color);
+    }
+
+    /**
+     * Number of columns and rows of the image
+     */
+    private final int nX, nY;
+    /**
+     * Edge of a tile in pixels
+     */
+    private final int tileSize;
+    /**
+     * Number of worker threads
+     */
+    private final int threadsCount;
+    /**
+     * Column and row of the first pixel of every tile, in the order of the curve
+     */
+    private final int[] tiles;
+
+    /**
+     * Constructor for TileScheduler
+     *
+     * @param nX           number of columns of the image
+     * @param nY           number of rows of the image
+     * @param tileSize     edge of a tile in pixels
+     * @param threadsCount number of worker threads
+     */
+    TileScheduler(int nX, int nY, int tileSize, int threadsCount) {
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        this.threadsCount = threadsCount;
+
+        int columns = (nX + tileSize - 1) / tileSize, rows = (nY + tileSize - 1) / tileSize;
+        // sort the tiles by their position on the curve, the index of a tile is kept in the low bits
+        long[] keys = new long[columns * rows];
+        for (int row = 0; row < rows; ++row)
+            for (int col = 0; col < columns; ++col) {
+                int index = row * columns + col;
+                keys[index] = (morton(col, row) << 32) | index;
+            }
+        Arrays.sort(keys);
+        tiles = new int[keys.length * 2];
+        for (int i = 0; i < keys.length; ++i) {
+            int index = (int) keys[i];
+            tiles[i * 2] = index % columns * tileSize;
+            tiles[i * 2 + 1] = index / columns * tileSize;
+        }
+    }
+
+    /**
+     * Position of a tile on the Morton curve - the bits of its column and row, interleaved
+     *
+     * @param col column of the tile
+     * @param row row of the tile
+     * @return the position on the curve
+     */
+    static long morton(int col, int row) {
+        return spread(col) | (spread(row) << 1);
+    }
+
+    /**
+     * Spreads the lower 16 bits of a number to the even bits
+     *
+     * @param n the number
+     * @return the spread bits
+     */
+    private static long spread(int n) {
+        long x = n & 0xFFFF;
+        x = (x | (x << 8)) & 0x00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0FL;
+        x = (x | (x << 2)) & 0x33333333L;
+        x = (x | (x << 1)) & 0x55555555L;
+        return x;
+    }
+
+    /**
+     * Getter for the number of tiles
+     *
+     * @return number of tiles
+     */
+    int getTileCount() {
+        return tiles.length / 2;
+    }
+
+    /**
+     * Task rendering a range of tiles, split between the workers
+     */
+    @SuppressWarnings("serial")
+    private class TileTask extends RecursiveAction {
+        /**
+         * The range [from, to) of the tiles, in the order of the curve
+         */
+        private final int from, to;
+        /**
+         * The tracer of the pixels
+         */
+        private final RowTracer tracer;
+        /**
+         * The writer of the pixels
+         */
+        private final PixelWriter writer;
+        /**
+         * The progress of the rendering
+         */
+        private final Pixel progress;
+
+        /**
+         * Constructor for TileTask
+         *
+         * @param from     first tile of the range
+         * @param to       end of the range
+         * @param tracer   the tracer of the pixels
+         * @param writer   the writer of the pixels
+         * @param progress the progress of the rendering
+         */
+        TileTask(int from, int to, RowTracer tracer, PixelWriter writer, Pixel progress) {
+            this.from = from;
+            this.to = to;
+            this.tracer = tracer;
+            this.writer = writer;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                renderTile(from, tracer, writer, progress);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid, tracer, writer, progress),
+                    new TileTask(mid, to, tracer, writer, progress));
+        }
+    }
+
+    /**
+     * Renders a single tile, row by row
+     *
+     * @param tile     index of the tile in the order of the curve
+     * @param tracer   the tracer of the pixels
+     * @param writer   the writer of the pixels
+     * @param progress the progress of the rendering
+     */
+    private void renderTile(int tile, RowTracer tracer, PixelWriter writer, Pixel progress) {
+        int col0 = tiles[tile * 2], row0 = tiles[tile * 2 + 1];
+        int col1 = Math.min(col0 + tileSize, nX), row1 = Math.min(row0 + tileSize, nY);
+        Color[] colors = new Color[col1 - col0];
+        for (int row = row0; row < row1; ++row) {
+            tracer.trace(col0, col1, row, colors, 0);
+            for (int col = col0; col < col1; ++col)
+                writer.write(col, row, colors[col - col0]);
+        }
+        progress.pixelsDone((col1 - col0) * (row1 - row0));
+    }
+
+    /**
+     * Renders all the tiles and waits for them, printing the progress meanwhile
+     *
+     * @param tracer        the tracer of the pixels
+     * @param writer        the writer of the pixels
+     * @param printInterval interval of the progress print in seconds, 0 for no print
+     */
+    void render(RowTracer tracer, PixelWriter writer, double printInterval) {
+        if (tiles.length == 0)
+            return;
+        Pixel progress = new Pixel(nY, nX, printInterval);
+        ForkJoinPool pool = new ForkJoinPool(threadsCount);
+        try {
+            ForkJoinTask<Void> task = pool.submit(new TileTask(0, getTileCount(), tracer, writer, progress));
+            progress.waitToFinish(task);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Renders every tile as a separate task of an executor and waits for them, printing the
+     * progress meanwhile. At most the number of threads of the scheduler trace at the same time.
+     *
+     * @param executor      the executor of the tile tasks
+     * @param tracer        the tracer of the pixels
+     * @param writer        the writer of the pixels
+     * @param printInterval interval of the progress print in seconds, 0 for no print
+     */
+    void render(Executor executor, RowTracer tracer, PixelWriter writer, double printInterval) {
+        Pixel progress = new Pixel(nY, nX, printInterval);
+        progress.waitToFinish(start(executor, tracer, writer, progress, Long.MAX_VALUE));
+    }
+
+    /**
+     * Starts rendering every tile as a separate task of an executor, without waiting for them.
+     * At most the number of threads of the scheduler trace at the same time.
+     * Cancelling the returned future stops the tiles before their next row, and after the deadline
+     * the tiles stop tracing and write only the rows they already traced.
+     *
+     * @param executor the executor of the tile tasks
+     * @param tracer   the tracer of the pixels
+     * @param writer   the writer of the pixels
+     * @param progress the progress of the rendering
+     * @param deadline the deadline of the rendering in milliseconds since the epoch,
+     *                 {@link Long#MAX_VALUE} for none
+     * @return completion of the rendering, completed once all the tiles stopped, or as soon as it is
+     * cancelled - a row which a tile was writing then may still be written after the cancellation
+     */
+    CompletableFuture<Void> start(Executor executor, RowTracer tracer, PixelWriter writer, Pixel progress,
+                                  long deadline) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        int count = getTileCount();
+        if (count == 0) {
+            done.complete(null);
+            return done;
+        }
+        Semaphore permits = new Semaphore(threadsCount);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger remaining = new AtomicInteger(count);
+
+        for (int i = 0; i < count; ++i) {
+            int tile = i;
+            Runnable task = () -> {
+                try {
+                    renderTile(tile, tracer, writer, progress, permits, done, failure, deadline);
+                } catch (InterruptedException e) {
+                    // the executor's worker must keep its interrupt status
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    // the rendering completes when the last tile stopped
+                    if (remaining.decrementAndGet() == 0)
+                        complete(done, failure.get());
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                // the tiles which were not handed to the executor stop right away
+                failure.compareAndSet(null, e);
+                if (remaining.addAndGet(i - count) == 0)
+                    complete(done, failure.get());
+                break;
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Renders a single tile on its own task: traces it while holding a tracing permit, and then
+     * writes it. The tile stops before its next row as soon as the rendering failed or was cancelled,
+     * and stops tracing after the deadline.
+     *
+     * @param tile     index of the tile in the order of the curve
+     * @param tracer   the tracer of the pixels
+     * @param writer   the writer of the pixels
+     * @param progress the progress of the rendering
+     * @param permits  the tracing permits
+     * @param done     completion of the rendering
+     * @param failure  the first failure of the rendering
+     * @param deadline the deadline of the rendering in milliseconds since the epoch
+     * @throws InterruptedException when the task is interrupted while waiting for a permit
+     */
+    private void renderTile(int tile, RowTracer tracer, PixelWriter writer, Pixel progress,
+                            Semaphore permits, CompletableFuture<Void> done,
+                            AtomicReference<Throwable> failure, long deadline) throws InterruptedException {
+        int col0 = tiles[tile * 2], row0 = tiles[tile * 2 + 1];
+        int col1 = Math.min(col0 + tileSize, nX), row1 = Math.min(row0 + tileSize, nY);
+        if (failure.get() != null || done.isDone() || System.currentTimeMillis() >= deadline)
+            return;
+        int width = col1 - col0;
+        Color[] colors = new Color[width * (row1 - row0)];
+        int traced = row0;
+        permits.acquire();
+        try {
+            for (; traced < row1; ++traced) {
+                if (failure.get() != null || done.isDone() || System.currentTimeMillis() >= deadline)
+                    break;
+                tracer.trace(col0, col1, traced, colors, (traced - row0) * width);
+            }
+        } finally {
+            permits.release();
+        }
+
+        int row = row0;
+        for (; row < traced; ++row) {
+            if (failure.get() != null || done.isDone())
+                break;
+            for (int col = col0; col < col1; ++col)
+                writer.write(col, row, colors[(row - row0) * width + col - col0]);
+        }
+        progress.pixelsDone(width * (row - row0));
+    }
+
+    /**
+     * Completes the rendering
+     *
+     * @param done    completion of the rendering
+     * @param failure the first failure of the rendering, null if it succeeded
+     */
+    private static void complete(CompletableFuture<Void> done, Throwable failure) {
+        if (failure == null)
+            done.complete(null);
+        else
+            done.completeExceptionally(failure);
+    }
+}
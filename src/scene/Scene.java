@@ -88,6 +88,14 @@ public class Scene {
         this.ambientLight = ambientLight;
     }
 
+    /**
+     * Updates the scene's geometries after they moved, including the ones shared by instances,
+     * before rendering the next frame (see {@link Geometries#refit()}).
+     */
+    public void refit() {
+        this.geometries.refit();
+    }
+
     /**
      * inner class SceneBuilder builds Scene object using builder pattern
      */
@@ -0,0 +1,123 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingBoxTest {
+
+    /**
+     * Asserts that a box has the expected corners
+     *
+     * @param min     expected lower corner
+     * @param max     expected upper corner
+     * @param box     the box to check
+     * @param message assertion message
+     */
+    private void assertBox(Point min, Point max, BoundingBox box, String message) {
+        assertNotNull(box, message);
+        assertEquals(min, new Point(box.getMin(0), box.getMin(1), box.getMin(2)), message);
+        assertEquals(max, new Point(box.getMax(0), box.getMax(1), box.getMax(2)), message);
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere
+        assertBox(new Point(0, 1, 2), new Point(2, 3, 4),
+                new Sphere(new Point(1, 2, 3), 1).getBoundingBox(), "Wrong sphere box");
+
+        // TC02: Triangle
+        assertBox(new Point(0, 0, 0), new Point(1, 2, 3),
+                new Triangle(new Point(1, 0, 0), new Point(0, 2, 0), new Point(0, 0, 3)).getBoundingBox(),
+                "Wrong triangle box");
+
+        // TC03: Polygon
+        assertBox(new Point(0, 0, 1), new Point(2, 2, 1),
+                new Polygon(new Point(0, 0, 1), new Point(2, 0, 1), new Point(2, 2, 1), new Point(0, 2, 1))
+                        .getBoundingBox(),
+                "Wrong polygon box");
+
+        // TC04: Cylinder along the z axis
+        assertBox(new Point(-1, -1, 0), new Point(1, 1, 5),
+                new Cylinder(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1, 5).getBoundingBox(),
+                "Wrong cylinder box");
+
+        // TC05: Collection of finite geometries
+        assertBox(new Point(-1, -1, -1), new Point(6, 6, 6),
+                new Geometries(new Sphere(Point.ZERO, 1), new Sphere(new Point(5, 5, 5), 1)).getBoundingBox(),
+                "Wrong geometries box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Infinite geometries have no box
+        assertNull(new Plane(Point.ZERO, new Vector(0, 0, 1)).getBoundingBox(), "Plane must not have a box");
+        assertNull(new Tube(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1).getBoundingBox(),
+                "Tube must not have a box");
+
+        // TC12: Collection with an infinite geometry has no box
+        assertNull(new Geometries(new Sphere(Point.ZERO, 1), new Plane(Point.ZERO, new Vector(0, 0, 1)))
+                .getBoundingBox(), "Geometries with a plane must not have a box");
+
+        // TC13: Box of a collection grows with added geometries
+        Geometries geometries = new Geometries(new Sphere(Point.ZERO, 1));
+        geometries.getBoundingBox();
+        geometries.add(new Sphere(new Point(5, 0, 0), 1));
+        assertBox(new Point(-1, -1, -1), new Point(6, 1, 1), geometries.getBoundingBox(),
+                "Geometries box was not updated");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray passes through the box
+        assertTrue(box.intersects(new Ray(new Point(-1, -1, -1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray should hit the box");
+
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, -1, -1), new Vector(1, 1, -1)), Double.POSITIVE_INFINITY),
+                "Ray should miss the box");
+
+        // TC03: Box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(2, 2, 2), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Box behind the ray");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 2, 3)), Double.POSITIVE_INFINITY),
+                "Ray starts inside the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Box is beyond the maximum distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0, 0)), 4),
+                "Box beyond max distance");
+
+        // TC12: Ray parallel to an axis, inside the slab
+        assertTrue(box.intersects(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0, 0)), 10),
+                "Axis parallel ray should hit the box");
+
+        // TC13: Ray parallel to an axis, outside the slab
+        assertFalse(box.intersects(new Ray(new Point(-5, 2, 0.5), new Vector(1, 0, 0)), 10),
+                "Axis parallel ray should miss the box");
+
+        // TC14: Flat box hit by a ray
+        assertTrue(new BoundingBox(0, 0, 1, 2, 2, 1)
+                        .intersects(new Ray(new Point(1, 1, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "Flat box should be hit");
+
+        // TC15: Ray parallel to an axis, on a plane of the slab
+        assertTrue(box.intersects(new Ray(new Point(-5, 1, 0.5), new Vector(1, 0, 0)), 10),
+                "Axis parallel ray on the side of the box should hit it");
+
+        // TC16: Ray parallel to an axis, outside the slab, in the negative direction
+        assertFalse(box.intersects(new Ray(new Point(5, -1, 0.5), new Vector(-1, 0, 0)), 10),
+                "Axis parallel ray in the negative direction should miss the box");
+    }
+}
@@ -1021,5 +1021,17 @@ class CylinderTest {
         lst = cylinder.findGeoIntersections(new Ray(new Point(-1, -1, -1), new Vector(-1, 0, 0)), -1000);
         assertNull(lst, error);
 
+        // TC07: ray enters through the upper base and leaves through the side (1 point, 2 points)
+        Ray ray = new Ray(new Point(1, 1, 5), new Vector(0.5, 0, -1));
+        lst = cylinder.findGeoIntersections(ray, 1);
+        assertNull(lst, error);
+
+        lst = cylinder.findGeoIntersections(ray, 2);
+        assertEquals(List.of(new GeoPoint(cylinder, new Point(1.5, 1, 4))), lst, error);
+
+        lst = cylinder.findGeoIntersections(ray, 3);
+        assertEquals(List.of(new GeoPoint(cylinder, new Point(1.5, 1, 4)), new GeoPoint(cylinder, new Point(2, 1, 3))), lst, error);
+        assertEquals(new GeoPoint(cylinder, new Point(1.5, 1, 4)), cylinder.findClosestGeoIntersection(ray), error);
+
     }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package geometries;
 import org.junit.jupiter.api.Test;
 import primitives.*;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GeometriesTest {
@@ -12,6 +15,19 @@ class GeometriesTest {
     Triangle tr = new Triangle(new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1));
     Geometries collection = new Geometries(sph, plane, tr);
 
+    /**
+     * Collection of the three geometries above, two more bounded geometries and a polygon far from them,
+     * for the acceleration structures
+     *
+     * @return the collection, without an acceleration structure
+     */
+    private Geometries mixedCollection() {
+        return new Geometries(sph, plane, tr,
+                new Sphere(new Point(-5, -5, -5), 1),
+                new Cylinder(new Ray(new Point(5, 0, 0), new Vector(0, 0, 1)), 1, 2),
+                new Polygon(new Point(0, 0, 5), new Point(1, 0, 5), new Point(1, 1, 5), new Point(0, 1, 5)));
+    }
+
     /**
      * Test methods for {@link geometries.Geometries#findIntersections(primitives.Ray)}.
      */
@@ -89,4 +105,307 @@ class GeometriesTest {
                 , "No geometry shapes in the collection");
     }
 
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through all the geometries - the sphere's front point is the closest
+        Ray ray = new Ray(new Point(2, 2, 2.5), new Vector(-1, -1, -1));
+        Point expected = ray.findClosestPoint(collection.findIntersections(ray));
+        assertEquals(expected, collection.findClosestGeoIntersection(ray).point, "Wrong closest point");
+        assertEquals(sph, collection.findClosestGeoIntersection(ray).geometry, "Wrong closest geometry");
+
+        // TC02: Ray which misses all the geometries
+        ray = new Ray(new Point(-1, 0, 0), new Vector(-1, -1, -1));
+        assertNull(collection.findClosestGeoIntersection(ray), "No intersection points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Closest point beyond the maximum distance
+        ray = new Ray(new Point(2, 2, 2.5), new Vector(-1, -1, -1));
+        assertNull(collection.findClosestGeoIntersection(ray, 1), "Closest point is too far");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(primitives.Ray, double, primitives.Double3, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, 5), 1).setMaterial(new Material().setKt(0.5)),
+                new Sphere(new Point(0, 0, 10), 1).setMaterial(new Material().setKt(0.5)),
+                new Plane(new Point(0, 0, 15), new Vector(0, 0, 1)));
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through one transparent sphere before the distance
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 7, Double3.ONE, 0.001),
+                "Wrong transparency through one sphere");
+
+        // TC02: Ray through both transparent spheres
+        assertEquals(new Double3(0.0625), geometries.findTransparency(ray, 12, Double3.ONE, 0.001),
+                "Wrong transparency through two spheres");
+
+        // TC03: Ray blocked by the opaque plane
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 20, Double3.ONE, 0.001),
+                "Opaque plane must block the ray");
+
+        // TC04: Ray which misses all the geometries
+        ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 20, Double3.ONE, 0.001),
+                "Ray must pass untouched");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Transparency falls below the minimum - the ray counts as blocked
+        ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 12, Double3.ONE, 0.1),
+                "Low transparency must block the ray");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void testBuildBVH() {
+        Geometries bvh = mixedCollection().buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through several geometries - the same points as scanning the whole collection
+        Ray ray = new Ray(new Point(2, 2, 2.5), new Vector(-1, -1, -1));
+        assertEquals(6, bvh.findIntersections(ray).size(), "Wrong number of intersection points");
+
+        // TC02: Ray that passes only through the infinite plane
+        ray = new Ray(new Point(10, 10, -10), new Vector(-1, -1, 1));
+        assertEquals(1, bvh.findIntersections(ray).size(), "Wrong number of intersection points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray outside all the boxes, moving away from the plane
+        ray = new Ray(new Point(20, 20, 20), new Vector(2, -2, 1));
+        assertNull(bvh.findIntersections(ray), "Ray misses all geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildLinearBVH()}.
+     */
+    @Test
+    void testBuildLinearBVH() {
+        // =============== Boundary Values Tests ==================
+        // TC11: Geometries with the same center - identical Morton codes
+        Geometries same = new Geometries(new Sphere(Point.ZERO, 1), new Sphere(Point.ZERO, 2),
+                new Sphere(Point.ZERO, 3)).buildLinearBVH();
+        Ray ray = new Ray(new Point(0, 0, -10), new Vector(0, 0, 1));
+        assertEquals(6, same.findIntersections(ray).size(), "Wrong number of intersection points");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)} into a nested collection.
+     */
+    @Test
+    void testAddNested() {
+        Geometries inner = new Geometries(new Sphere(new Point(0, 0, 0), 1));
+        Geometries outer = new Geometries(inner);
+        Geometries scene = new Geometries(outer, new Sphere(new Point(0, 10, 0), 1));
+        Ray ray = new Ray(new Point(5, 0, -10), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Geometry added to a nested collection after the containing collections were queried
+        assertNull(scene.findGeoIntersections(ray), "Ray must miss before the sphere was added");
+        inner.add(new Sphere(new Point(5, 0, 0), 1));
+        assertEquals(2, outer.findGeoIntersections(ray).size(), "Added sphere must be found through the parent");
+        assertEquals(2, scene.findGeoIntersections(ray).size(), "Added sphere must be found through the scene");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Collection shared by two containers - both see the moved geometry
+        Sphere moving = new Sphere(new Point(0, 0, 0), 1);
+        Geometries shared = new Geometries(moving);
+        Geometries first = new Geometries(shared), second = new Geometries(shared);
+        assertNull(first.findGeoIntersections(ray), "Ray must miss before the move");
+        assertNull(second.findGeoIntersections(ray), "Ray must miss before the move");
+        moving.setCenter(new Point(5, 0, 0));
+        assertEquals(2, first.findGeoIntersections(ray).size(), "Moved sphere must be found by the first");
+        assertEquals(2, second.findGeoIntersections(ray).size(), "Moved sphere must be found by the second");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#refit()}.
+     */
+    @Test
+    void testRefit() {
+        Sphere moving = new Sphere(new Point(0, 0, 0), 1);
+        Geometries inner = new Geometries(moving, new Sphere(new Point(0, 3, 0), 1)).buildBVH();
+        Geometries geometries = new Geometries(inner, new Sphere(new Point(3, 0, 0), 1),
+                new Sphere(new Point(0, 0, 3), 1)).buildBVH();
+        Ray oldPlace = new Ray(new Point(0, 0, -10), new Vector(0, 0, 1));
+        Ray newPlace = new Ray(new Point(0, -2, -10), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Small move inside a nested collection - the hierarchy keeps its topology
+        int nodes = geometries.getBvhStatistics().getNodeCount();
+        moving.setCenter(new Point(0, -2, 0));
+        geometries.refit();
+        assertEquals(nodes, geometries.getBvhStatistics().getNodeCount(), "Refit must keep the topology");
+        assertEquals(2, geometries.findIntersections(newPlace).size(), "Moved sphere must be found");
+        assertEquals(2, geometries.findIntersections(oldPlace).size(), "Only the sphere at z=3 is left there");
+
+        // TC02: Refitting a grid rebuilds it
+        Geometries grid = new Geometries(new Sphere(new Point(3, 0, 0), 1), moving).buildGrid();
+        moving.setCenter(new Point(0, 0, 0));
+        assertEquals(2, grid.refit().findIntersections(oldPlace).size(), "Moved sphere must be found");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Far move which degrades the hierarchy - rebuilt, and still finds the sphere
+        moving.setCenter(new Point(1000, 1000, 1000));
+        geometries.refit();
+        assertEquals(2, geometries.findIntersections(
+                        new Ray(new Point(1000, 1000, 990), new Vector(0, 0, 1))).size(),
+                "Moved sphere must be found");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getBvhStatistics()}.
+     */
+    @Test
+    void testGetBvhStatistics() {
+        Geometries geometries = mixedCollection();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: No statistics before building the hierarchy
+        assertNull(geometries.getBvhStatistics(), "No hierarchy was built");
+
+        // TC02: A binary tree over the five bounded geometries
+        BvhStatistics statistics = geometries.buildBVH().getBvhStatistics();
+        assertEquals(2 * statistics.getLeafCount() - 1, statistics.getNodeCount(), "Wrong number of nodes");
+        assertEquals(5, statistics.getAverageLeafSize() * statistics.getLeafCount(), 1e-9,
+                "Wrong number of geometries in the leaves");
+        assertTrue(statistics.getMinLeafSize() >= 1 && statistics.getMaxLeafSize() <= 4, "Wrong leaf sizes");
+        assertTrue(statistics.getDepth() > 1, "Wrong depth");
+        assertTrue(statistics.getSahCost() > 0, "Wrong SAH cost");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Only infinite geometries - an empty hierarchy
+        statistics = new Geometries(plane).buildBVH().getBvhStatistics();
+        assertEquals(0, statistics.getNodeCount(), "Hierarchy must be empty");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildGrid()}.
+     */
+    @Test
+    void testBuildGrid() {
+        Geometries grid = mixedCollection().buildGrid();
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts inside the grid and goes along an axis
+        Ray ray = new Ray(new Point(-5, -5, 0), new Vector(0, 0, -1));
+        assertEquals(2, grid.findIntersections(ray).size(), "Wrong number of intersection points");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildKdTree()}.
+     */
+    @Test
+    void testBuildKdTree() {
+        Geometries kdTree = mixedCollection().buildKdTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Closest point is on the first sphere
+        Ray ray = new Ray(new Point(2, 2, 2.5), new Vector(-1, -1, -1));
+        assertEquals(sph, kdTree.findClosestGeoIntersection(ray).geometry, "Wrong closest geometry");
+
+        // TC02: Closest point is on the infinite plane, in front of the far sphere
+        ray = new Ray(new Point(-5, -5, 30), new Vector(0, 0, -1));
+        assertEquals(plane, kdTree.findClosestGeoIntersection(ray).geometry, "Wrong closest geometry");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray outside the tree, moving away from the plane
+        ray = new Ray(new Point(20, 20, 20), new Vector(2, -2, 1));
+        assertNull(kdTree.findClosestGeoIntersection(ray), "Ray misses all geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}, {@link geometries.Geometries#buildGrid()}
+     * and {@link geometries.Geometries#buildKdTree()} over a cloud of small geometries and over a
+     * collection with an infinite plane - each structure must find exactly the points of a full scan.
+     */
+    @Test
+    void testAcceleratorsMatchScan() {
+        Random random = new Random(5782);
+        Geometries scan = new Geometries();
+        Geometries bvh = new Geometries();
+        Geometries lbvh = new Geometries();
+        Geometries grid = new Geometries();
+        Geometries kdTree = new Geometries();
+        for (int i = 0; i < 300; ++i) {
+            Point center = new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100);
+            Intersectable item = i % 2 == 0
+                    ? new Sphere(center, 1 + random.nextDouble() * 3)
+                    : new Triangle(center, center.add(new Vector(4, 0, 1)), center.add(new Vector(0, 4, -1)));
+            scan.add(item);
+            bvh.add(item);
+            lbvh.add(item);
+            grid.add(item);
+            kdTree.add(item);
+        }
+        bvh.buildBVH();
+        lbvh.buildLinearBVH();
+        grid.buildGrid();
+        kdTree.buildKdTree();
+
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 140 - 20, random.nextDouble() * 140 - 20, -30),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            List<Point> expected = scan.findIntersections(ray);
+            int count = expected == null ? 0 : expected.size();
+            List<Point> result = bvh.findIntersections(ray);
+            assertEquals(count, result == null ? 0 : result.size(), "BVH found wrong number of points");
+            result = lbvh.findIntersections(ray);
+            assertEquals(count, result == null ? 0 : result.size(), "LBVH found wrong number of points");
+            result = grid.findIntersections(ray);
+            assertEquals(count, result == null ? 0 : result.size(), "Grid found wrong number of points");
+            result = kdTree.findIntersections(ray);
+            assertEquals(count, result == null ? 0 : result.size(), "Kd-tree found wrong number of points");
+
+            Point closest = ray.findClosestPoint(expected);
+            assertEquals(closest, point(bvh.findClosestGeoIntersection(ray)), "BVH found wrong closest point");
+            assertEquals(closest, point(lbvh.findClosestGeoIntersection(ray)), "LBVH found wrong closest point");
+            assertEquals(closest, point(grid.findClosestGeoIntersection(ray)), "Grid found wrong closest point");
+            assertEquals(closest, point(kdTree.findClosestGeoIntersection(ray)), "Kd-tree found wrong closest point");
+
+            // every geometry is opaque - blocked exactly when there is a hit
+            Double3 transparency = count == 0 ? Double3.ONE : Double3.ZERO;
+            assertEquals(transparency, bvh.findTransparency(ray, 200, Double3.ONE, 0.001), "BVH found wrong transparency");
+            assertEquals(transparency, lbvh.findTransparency(ray, 200, Double3.ONE, 0.001), "LBVH found wrong transparency");
+            assertEquals(transparency, grid.findTransparency(ray, 200, Double3.ONE, 0.001), "Grid found wrong transparency");
+            assertEquals(transparency, kdTree.findTransparency(ray, 200, Double3.ONE, 0.001), "Kd-tree found wrong transparency");
+        }
+
+        // the structures keep the infinite geometries out of the hierarchy, and must still find them
+        Geometries mixedScan = mixedCollection();
+        List<Geometries> mixed = List.of(mixedCollection().buildBVH(), mixedCollection().buildLinearBVH(),
+                mixedCollection().buildGrid(), mixedCollection().buildKdTree());
+        List<Ray> rays = List.of(new Ray(new Point(2, 2, 2.5), new Vector(-1, -1, -1)),
+                new Ray(new Point(10, 10, -10), new Vector(-1, -1, 1)),
+                new Ray(new Point(20, 20, 20), new Vector(2, -2, 1)));
+        for (Geometries accelerated : mixed)
+            for (Ray ray : rays) {
+                List<Point> expected = mixedScan.findIntersections(ray);
+                List<Point> result = accelerated.findIntersections(ray);
+                assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                        "Wrong number of points with an infinite plane");
+                assertEquals(ray.findClosestPoint(expected), point(accelerated.findClosestGeoIntersection(ray)),
+                        "Wrong closest point with an infinite plane");
+            }
+    }
+
+    /**
+     * Helper for the point of a nullable GeoPoint
+     *
+     * @param gp the GeoPoint
+     * @return the point of the GeoPoint, or null
+     */
+    private static Point point(Intersectable.GeoPoint gp) {
+        return gp == null ? null : gp.point;
+    }
+
 }
\ No newline at end of file
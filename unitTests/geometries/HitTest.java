@@ -0,0 +1,91 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.Hit} class
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class HitTest {
+    /**
+     * Ray along the z axis, from (0,0,-2)
+     */
+    private final Ray ray = new Ray(new Point(0, 0, -2), new Vector(0, 0, 1));
+
+    /**
+     * Test method for {@link geometries.Hit#set(Ray, double, Geometry)}.
+     */
+    @Test
+    void testSet() {
+        Sphere near = new Sphere(new Point(0, 0, 0), 1);
+        Sphere far = new Sphere(new Point(0, 0, 5), 1);
+        Hit hit = new Hit();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Empty hit
+        assertFalse(hit.isFound(), "Empty hit must not be found");
+        assertEquals(Double.POSITIVE_INFINITY, hit.getT(), "Empty hit must be infinitely far");
+        assertNull(hit.toGeoPoint(), "Empty hit has no GeoPoint");
+
+        // TC02: First hit is recorded, the point and the normal are calculated from its distance
+        assertTrue(hit.set(ray, 1, near), "First hit must be recorded");
+        assertTrue(hit.isFound(), "Hit must be found");
+        assertEquals(new Point(0, 0, -1), hit.getPoint(), "Wrong point");
+        assertSame(hit.getPoint(), hit.getPoint(), "Point must be calculated once");
+        assertEquals(new Vector(0, 0, -1), hit.getNormal(), "Wrong normal");
+        assertSame(hit.getNormal(), hit.getNormal(), "Normal must be calculated once");
+
+        // TC03: Farther hit is ignored
+        assertFalse(hit.set(ray, 6, far), "Farther hit must be ignored");
+        assertSame(near, hit.getGeometry(), "Wrong geometry");
+
+        // TC04: Closer hit replaces the point and the normal
+        assertTrue(hit.set(ray, 0.5, far), "Closer hit must be recorded");
+        assertEquals(new Point(0, 0, -1.5), hit.getPoint(), "Point of the former hit was kept");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Hit at the same distance is ignored
+        assertFalse(hit.set(ray, 0.5, near), "Hit at the same distance must be ignored");
+
+        // TC12: Reset hit is empty again
+        hit.reset();
+        assertFalse(hit.isFound(), "Reset hit must not be found");
+        assertTrue(hit.set(ray, 6, far), "Hit after reset must be recorded");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(Ray, double, Hit)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        TriangleMesh square = new TriangleMesh(
+                new double[]{0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0},
+                new int[]{0, 1, 2, 0, 2, 3});
+        Geometries geometries = new Geometries(square, new Sphere(new Point(1, 1, 3), 1));
+        Ray up = new Ray(new Point(0.5, 1.5, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Closest hit of a collection is the mesh triangle, with its index and barycentric coordinates
+        Hit hit = new Hit();
+        assertTrue(geometries.findClosestHit(up, Double.POSITIVE_INFINITY, hit), "Ray must hit the mesh");
+        assertEquals(1, hit.getPrimitive(), "Wrong triangle");
+        assertEquals(1, ((TriangleMesh.Face) hit.getGeometry()).getIndex(), "Wrong face");
+        assertEquals(1, hit.getT(), 1e-10, "Wrong distance");
+        assertEquals(0.25, hit.getU(), 1e-10, "Wrong u");
+        assertEquals(0.5, hit.getV(), 1e-10, "Wrong v");
+        assertEquals(new Point(0.5, 1.5, 0), hit.getPoint(), "Wrong point");
+
+        // TC02: Hit already closer than the collection is kept
+        Hit closer = new Hit();
+        closer.set(up, 0.5, new Sphere(new Point(0, 0, 0), 1));
+        assertFalse(geometries.findClosestHit(up, Double.POSITIVE_INFINITY, closer), "Closer hit must be kept");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Collection beyond the maximal distance
+        assertFalse(geometries.findClosestHit(up, 0.5, new Hit()), "Collection is too far");
+    }
+}
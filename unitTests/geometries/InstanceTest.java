@@ -0,0 +1,112 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.Instance} class
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class InstanceTest {
+    /**
+     * Shared unit sphere at the origin
+     */
+    private final Sphere sphere = new Sphere(Point.ZERO, 1);
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Instance instance = new Instance(sphere, Transform.scaling(2, 2, 2)
+                .then(Transform.translation(new Vector(10, 0, 0))));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the moved and scaled sphere
+        Ray ray = new Ray(new Point(10, 0, -10), new Vector(0, 0, 1));
+        List<Point> result = instance.findIntersections(ray);
+        assertEquals(List.of(new Point(10, 0, -2), new Point(10, 0, 2)), result, "Wrong intersection points");
+
+        // TC02: Ray through the place of the shared sphere misses the instance
+        ray = new Ray(new Point(0, 0, -10), new Vector(0, 0, 1));
+        assertNull(instance.findIntersections(ray), "Ray must miss the instance");
+
+        // TC03: Normal and material come from the shared sphere, in world space
+        ray = new Ray(new Point(20, 0, 0), new Vector(-1, 0, 0));
+        Intersectable.GeoPoint gp = instance.findClosestGeoIntersection(ray);
+        assertEquals(new Point(12, 0, 0), gp.point, "Wrong closest point");
+        assertEquals(new Vector(1, 0, 0), gp.geometry.getNormal(gp.point), "Wrong normal");
+        assertSame(sphere.getMaterial(), gp.geometry.getMaterial(), "Wrong material");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Distance limit is kept in world space
+        ray = new Ray(new Point(10, 0, -10), new Vector(0, 0, 1));
+        assertEquals(1, instance.findGeoIntersections(ray, 9).size(), "Only the front point is in range");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        Instance instance = new Instance(sphere, Transform.translation(new Vector(5, 0, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Box of the moved sphere
+        BoundingBox box = instance.getBoundingBox();
+        assertEquals(4, box.getMin(0), 1e-9, "Wrong box");
+        assertEquals(6, box.getMax(0), 1e-9, "Wrong box");
+
+        // TC02: Moved again - instances of one sphere in an accelerated collection
+        instance.setTransform(Transform.translation(new Vector(-5, 0, 0)));
+        Geometries geometries = new Geometries(instance,
+                new Instance(sphere, Transform.translation(new Vector(0, 5, 0)))).buildBVH();
+        assertEquals(2, geometries.findIntersections(
+                new Ray(new Point(-5, 0, -10), new Vector(0, 0, 1))).size(), "Wrong number of points");
+        assertEquals(2, geometries.findIntersections(
+                new Ray(new Point(0, 5, -10), new Vector(0, 0, 1))).size(), "Wrong number of points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Instance of an infinite geometry is infinite
+        assertNull(new Instance(new Plane(Point.ZERO, new Vector(0, 0, 1)), Transform.IDENTITY).getBoundingBox(),
+                "Plane instance must be unbounded");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#refit()} with instances.
+     */
+    @Test
+    void testRefit() {
+        Sphere moving = new Sphere(Point.ZERO, 1);
+        Geometries shared = new Geometries(moving, new Sphere(new Point(0, 3, 0), 1)).buildBVH();
+        Geometries scene = new Geometries(
+                new Instance(shared, Transform.IDENTITY),
+                new Instance(shared, Transform.translation(new Vector(20, 0, 0)))).buildBVH();
+        assertEquals(2, scene.findIntersections(new Ray(new Point(0, 0, -10), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The shared sphere moved - both instances see it after refitting the scene
+        moving.setCenter(new Point(5, 0, 0));
+        scene.refit();
+        assertEquals(2, scene.findIntersections(new Ray(new Point(5, 0, -10), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+        assertEquals(2, scene.findIntersections(new Ray(new Point(25, 0, -10), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+        assertNull(scene.findIntersections(new Ray(new Point(0, 0, -10), new Vector(0, 0, 1))),
+                "Ray must miss the moved sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Moved again, far out of the old boxes - the shared collection was refitted by itself before
+        moving.setCenter(new Point(0, -10, 0));
+        shared.refit();
+        scene.refit();
+        assertEquals(2, scene.findIntersections(new Ray(new Point(20, -10, -10), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+    }
+}
@@ -148,6 +148,26 @@ class PolygonTest {
                                 new Vector(0, 1, 0))),
                 "Ray isn't outside against vertex");
 
+        // TC04: Tilted polygon with the vertices in the opposite order, hit by a slanted ray
+        Polygon tilted = new Polygon(
+                new Point(0, 0, 0),
+                new Point(0, 2, 2),
+                new Point(2, 2, 2),
+                new Point(2, 0, 0));
+        assertEquals(
+                List.of(new Point(1, 1, 1)),
+                tilted.findIntersections(
+                        new Ray(
+                                new Point(0, 1, 2),
+                                new Vector(1, 0, -1))),
+                "Ray isn't inside the tilted polygon");
+        assertNull(
+                tilted.findIntersections(
+                        new Ray(
+                                new Point(2, 1, 2),
+                                new Vector(1, 0, -1))),
+                "Ray isn't outside the tilted polygon");
+
         // =============== Boundary Values Tests ==================
 
         // TC11: Ray on edge
@@ -0,0 +1,196 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.TriangleMesh} class
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class TriangleMeshTest {
+    /**
+     * Square of two triangles on the plane z = 0, from (0,0,0) to (2,2,0)
+     */
+    private final TriangleMesh square = new TriangleMesh(
+            new double[]{0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0},
+            new int[]{0, 1, 2, 0, 2, 3});
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(2, square.getTriangleCount(), "Wrong triangle count");
+        assertEquals(4, square.getVertexCount(), "Wrong vertex count");
+
+        // TC02: Index of a missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+
+        // TC03: Positions which aren't triplets
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2}),
+                "Constructed a mesh with broken positions");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No triangles
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0}, new int[0]), "Constructed an empty mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray hits the second triangle, which is reported by its index
+        Ray ray = new Ray(new Point(0.5, 1.5, -1), new Vector(0, 0, 1));
+        List<Intersectable.GeoPoint> result = square.findGeoIntersections(ray);
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(0.5, 1.5, 0), result.get(0).point, "Wrong point");
+        TriangleMesh.Face face = (TriangleMesh.Face) result.get(0).geometry;
+        assertEquals(1, face.getIndex(), "Wrong triangle");
+        assertEquals(new Vector(0, 0, 1), face.getNormal(result.get(0).point), "Wrong normal");
+        assertEquals(new Vector(0, 0, 1), square.getNormal(new Point(0.5, 1.5, 0)), "Wrong normal");
+
+        // TC02: Ray misses the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(3, 1, -1), new Vector(0, 0, 1))),
+                "Ray must miss the mesh");
+
+        // TC03: Mesh beyond the maximal distance
+        assertNull(square.findGeoIntersections(new Ray(new Point(1, 0.5, -1), new Vector(0, 0, 1)), 0.5),
+                "Mesh is too far");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the shared edge doesn't leak between the triangles, and hits only one of them
+        Ray diagonal = new Ray(new Point(1, 1, -1), new Vector(0, 0, 1));
+        assertNotNull(square.findClosestGeoIntersection(diagonal), "Ray leaked through the shared edge");
+        assertEquals(1, square.findGeoIntersections(diagonal).size(), "Shared edge must be hit once");
+
+        // TC12: Ray in the plane of the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(-1, 1, 0), new Vector(1, 0, 0))),
+                "Ray in the plane must not intersect");
+
+        // TC13: Rays through the rim of the mesh miss on every edge and vertex, like a single triangle
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(2, 0, 0), new Point(2, 2, 0));
+        for (Point rim : List.of(new Point(1, 0, -1), new Point(2, 1, -1), new Point(1, 2, -1),
+                new Point(0, 1, -1), new Point(0, 0, -1), new Point(2, 2, -1))) {
+            ray = new Ray(rim, new Vector(0, 0, 1));
+            assertNull(square.findGeoIntersections(ray), "Ray through the rim must miss the mesh");
+            assertNull(triangle.findGeoIntersections(ray), "Ray through the rim must miss the triangle");
+        }
+
+        // TC14: Ray through a vertex inside the mesh hits exactly one triangle around it,
+        // whether the vertex has the lowest or the highest index
+        double[] fan = {0, 0, 0, 1, 0, 0, 0, 1, 0, -1, 0, 0, 0, -1, 0};
+        Ray center = new Ray(new Point(0, 0, -1), new Vector(0, 0, 1));
+        TriangleMesh lowest = new TriangleMesh(fan, new int[]{0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 1});
+        assertEquals(1, lowest.findGeoIntersections(center).size(), "Inner vertex must be hit once");
+        assertNotNull(lowest.findClosestGeoIntersection(center), "Ray leaked through the inner vertex");
+        double[] fanLast = {1, 0, 0, 0, 1, 0, -1, 0, 0, 0, -1, 0, 0, 0, 0};
+        TriangleMesh highest = new TriangleMesh(fanLast, new int[]{4, 0, 1, 4, 1, 2, 4, 2, 3, 4, 3, 0});
+        assertEquals(1, highest.findGeoIntersections(center).size(), "Inner vertex must be hit once");
+        assertNotNull(highest.findClosestGeoIntersection(center), "Ray leaked through the inner vertex");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findTransparency(Ray, double, Double3, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        // four squares of two triangles each, on the planes z = 0, 1, 2, 3
+        double[] positions = new double[4 * 12];
+        int[] indices = new int[4 * 6];
+        for (int layer = 0; layer < 4; ++layer) {
+            double[] corners = {0, 0, layer, 2, 0, layer, 2, 2, layer, 0, 2, layer};
+            System.arraycopy(corners, 0, positions, layer * 12, 12);
+            int[] triangles = {0, 1, 2, 0, 2, 3};
+            for (int i = 0; i < 6; ++i)
+                indices[layer * 6 + i] = layer * 4 + triangles[i];
+        }
+        TriangleMesh layers = new TriangleMesh(positions, indices);
+        layers.setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point(0.5, 1.5, -1), new Vector(0, 0, 1));
+        double inf = Double.POSITIVE_INFINITY;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through all the layers stays transparent
+        assertEquals(new Double3(0.0625), layers.findTransparency(ray, inf, Double3.ONE, 0.01),
+                "Wrong transparency through all the layers");
+
+        // TC02: Ray becomes opaque before passing all the layers
+        assertEquals(Double3.ZERO, layers.findTransparency(ray, inf, Double3.ONE, 0.1), "Ray must be blocked");
+
+        // TC03: Only the layers within the distance count
+        assertEquals(new Double3(0.25), layers.findTransparency(ray, 2.5, Double3.ONE, 0.01),
+                "Wrong transparency through two layers");
+        assertEquals(2, layers.findGeoIntersections(ray, 2.5).size(), "Wrong number of points");
+
+        // TC04: Opaque mesh blocks at the first hit
+        layers.setMaterial(new Material());
+        assertEquals(Double3.ZERO, layers.findTransparency(ray, inf, Double3.ONE, 0.01), "Ray must be blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the shared edges passes each layer once
+        layers.setMaterial(new Material().setKt(0.5));
+        Ray diagonal = new Ray(new Point(1, 1, -1), new Vector(0, 0, 1));
+        assertEquals(new Double3(0.0625), layers.findTransparency(diagonal, inf, Double3.ONE, 0.01),
+                "Shared edges must be passed once");
+
+        // TC12: Fully transparent mesh never blocks
+        layers.setMaterial(new Material().setKt(1));
+        assertEquals(Double3.ONE, layers.findTransparency(ray, inf, Double3.ONE, 0.01), "Ray must pass");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestGeoIntersection(Ray)}.
+     * A random soup of triangles must hit like the same triangles as separate {@link Triangle}s.
+     */
+    @Test
+    void testMatchesTriangles() {
+        Random random = new Random(11);
+        int count = 300;
+        double[] positions = new double[count * 9];
+        int[] indices = new int[count * 3];
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < count; ++i) {
+            Point[] corners = new Point[3];
+            double cx = random.nextDouble() * 100, cy = random.nextDouble() * 100, cz = random.nextDouble() * 100;
+            for (int corner = 0; corner < 3; ++corner) {
+                corners[corner] = new Point(cx + random.nextDouble() * 10, cy + random.nextDouble() * 10,
+                        cz + random.nextDouble() * 10);
+                positions[i * 9 + corner * 3] = corners[corner].getX();
+                positions[i * 9 + corner * 3 + 1] = corners[corner].getY();
+                positions[i * 9 + corner * 3 + 2] = corners[corner].getZ();
+                indices[i * 3 + corner] = i * 3 + corner;
+            }
+            triangles.add(new Triangle(corners[0], corners[1], corners[2]));
+        }
+        TriangleMesh mesh = new TriangleMesh(positions, indices);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same closest hits and amount of hits as the separate triangles
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 100, random.nextDouble() * 100, -50),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            Intersectable.GeoPoint expected = triangles.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = mesh.findClosestGeoIntersection(ray);
+            assertEquals(expected == null, actual == null, "Wrong hit");
+            if (expected != null)
+                assertEquals(expected.point, actual.point, "Wrong closest point");
+            List<Point> all = triangles.findIntersections(ray);
+            List<Point> meshAll = mesh.findIntersections(ray);
+            assertEquals(all == null ? 0 : all.size(), meshAll == null ? 0 : meshAll.size(), "Wrong number of points");
+        }
+    }
+}
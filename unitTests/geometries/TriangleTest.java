@@ -113,4 +113,38 @@ class TriangleTest {
         Ray ray6 = new Ray(new Point(0, 0, -1), new Vector(0, 4, 1));
         assertNull(triangle.findIntersections(ray6), "On edge's continuation");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(Ray, double, Hit)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Triangle triangle = new Triangle(
+                new Point(2, 0, 0),
+                new Point(0, 3, 0),
+                new Point(0, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Distance and barycentric coordinates of the hit
+        Hit hit = new Hit();
+        assertTrue(triangle.findClosestHit(new Ray(new Point(0, 0, -1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY, hit),
+                "Ray must hit the triangle");
+        assertEquals(Math.sqrt(3), hit.getT(), 1e-10, "Wrong distance");
+        assertEquals(1d / 3, hit.getU(), 1e-10, "Wrong u");
+        assertEquals(1d / 6, hit.getV(), 1e-10, "Wrong v");
+        assertEquals(new Point(1, 1, 0), hit.getPoint(), "Wrong point");
+
+        // TC02: Triangle behind the ray
+        assertFalse(triangle.findClosestHit(new Ray(new Point(0, 0, 1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY, new Hit()),
+                "Triangle is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Triangle beyond the maximal distance
+        assertFalse(triangle.findClosestHit(new Ray(new Point(0, 0, -1), new Vector(1, 1, 1)), 1.7, new Hit()),
+                "Triangle is too far");
+
+        // TC12: Ray parallel to the triangle
+        assertFalse(triangle.findClosestHit(new Ray(new Point(0.5, 0.5, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, new Hit()),
+                "Ray in the plane must not intersect");
+    }
+}
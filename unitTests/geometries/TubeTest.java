@@ -621,4 +621,26 @@ class TubeTest {
         lst = tube.findGeoIntersections(new Ray(new Point(1, 0, 1), new Vector(1, -1, 0)), -1000);
         assertNull(lst, error);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Tube tube = new Tube(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1)), 1);
+        Ray ray = new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the tube - the entry point is the closest
+        assertEquals(new Point(-1, 0, 3), tube.findClosestGeoIntersection(ray).point, "Wrong closest point");
+
+        // TC02: Ray parallel to the axis
+        assertNull(tube.findClosestGeoIntersection(new Ray(new Point(0.5, 0, 3), new Vector(0, 0, 1))),
+                "Parallel ray must not intersect");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Only the entry point is within the distance
+        assertEquals(1, tube.findGeoIntersections(ray, 2).size(), "Wrong number of points");
+        assertNull(tube.findClosestGeoIntersection(ray, 0.5), "Tube is too far");
+    }
+}
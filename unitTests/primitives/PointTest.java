@@ -3,6 +3,7 @@ package primitives;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class PointTest {
 
@@ -45,4 +46,17 @@ class PointTest {
         // ============ Equivalence Partitions Tests ==============//
         assertEquals(new Vector(-1, -1, -1), p1.subtract(p2), "Error: Subtract() wrong value");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Point#subtractNormalized(primitives.Point)}
+     */
+    @Test
+    void testSubtractNormalized() {
+        // ============ Equivalence Partitions Tests ==============//
+        assertEquals(p1.subtract(p2).normalize(), p1.subtractNormalized(p2), "Error: subtractNormalized() wrong value");
+
+        // =============== Boundary Values Tests ==================
+        assertThrows(IllegalArgumentException.class, () -> p1.subtractNormalized(p1),
+                "Error: subtractNormalized() of the same point must throw");
+    }
+}
@@ -76,4 +76,28 @@ class RayTest {
                 ray.findClosestPoint(list),
                 "Closest point should be the last point");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Ray#getInverseX()} and the other inverse direction and sign getters.
+     */
+    @Test
+    void testInverseDirection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Direction with a positive and a negative coordinate
+        Ray tilted = new Ray(new Point(1, 2, 3), new Vector(3, -4, 0));
+        assertEquals(1 / 0.6, tilted.getInverseX(), 1e-10, "Wrong inverse x");
+        assertEquals(1 / -0.8, tilted.getInverseY(), 1e-10, "Wrong inverse y");
+        assertEquals(0, tilted.getSignX(), "Wrong sign of positive x");
+        assertEquals(1, tilted.getSignY(), "Wrong sign of negative y");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Direction parallel to the slabs of an axis
+        assertEquals(Double.POSITIVE_INFINITY, tilted.getInverseZ(), "Inverse of zero must be infinite");
+        assertEquals(0, tilted.getSignZ(), "Wrong sign of zero");
+
+        // TC12: Direction with a negative zero coordinate
+        Ray negativeZero = new Ray(new Point(1, 2, 3), new Vector(1, 0, -0d));
+        assertEquals(Double.NEGATIVE_INFINITY, negativeZero.getInverseZ(), "Inverse of -0 must be negative");
+        assertEquals(1, negativeZero.getSignZ(), "Wrong sign of negative zero");
+    }
+}
@@ -0,0 +1,74 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.Transform} class
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class TransformTest {
+
+    /**
+     * Test method for {@link primitives.Transform#Transform(double[][])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct affine matrix
+        assertDoesNotThrow(() -> new Transform(new double[][]{
+                {2, 0, 0, 1}, {0, 1, 0, 2}, {0, 0, 1, 3}, {0, 0, 0, 1}}), "Failed constructing a correct transform");
+
+        // TC02: Projective last row
+        assertThrows(IllegalArgumentException.class, () -> new Transform(new double[][]{
+                {1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 1, 0}}), "Constructed a non affine transform");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Singular matrix
+        assertThrows(IllegalArgumentException.class, () -> new Transform(new double[][]{
+                {1, 0, 0, 0}, {1, 0, 0, 0}, {0, 0, 1, 0}, {0, 0, 0, 1}}), "Constructed a singular transform");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#applyToPoint(Point)}.
+     */
+    @Test
+    void testApplyToPoint() {
+        Transform transform = Transform.scaling(2, 2, 2)
+                .then(Transform.rotation(new Vector(0, 0, 1), 90))
+                .then(Transform.translation(new Vector(1, 2, 3)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scale, rotate and translate a point
+        assertEquals(new Point(-3, 4, 3), transform.applyToPoint(new Point(1, 2, 0)), "Wrong transformed point");
+
+        // TC02: Vectors are not translated
+        assertEquals(new Vector(-4, 2, 0), transform.applyToVector(new Vector(1, 2, 0)), "Wrong transformed vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The origin is moved only by the translation
+        assertEquals(new Point(1, 2, 3), transform.applyToPoint(Point.ZERO), "Wrong transformed origin");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#inverse()}.
+     */
+    @Test
+    void testInverse() {
+        Transform transform = Transform.rotation(new Vector(1, 1, 0), 30)
+                .then(Transform.scaling(1, 3, 0.5))
+                .then(Transform.translation(new Vector(-4, 0, 7)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The inverse undoes the transform
+        Point p = new Point(3, -1, 2);
+        assertEquals(p, transform.inverse().applyToPoint(transform.applyToPoint(p)), "Inverse doesn't undo");
+        assertEquals(Transform.IDENTITY, transform.then(transform.inverse()), "Product with inverse isn't identity");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Inverse of the identity
+        assertEquals(Transform.IDENTITY, Transform.IDENTITY.inverse(), "Identity must be its own inverse");
+    }
+}
@@ -1,7 +1,24 @@
 package renderer;
 
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
 import org.junit.jupiter.api.Test;
 import primitives.*;
+import scene.Scene;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,5 +66,271 @@ class CameraTest {
         assertEquals(new Ray(ZERO_POINT, new Vector(1, -3, -10)),
                 camera.setVPSize(8, 8).constructRay(4, 4, 1, 0), badRay);
 
+        // BV07: 4X4 Corner (0,0) of a view plane wider than high
+        assertEquals(new Ray(ZERO_POINT, new Vector(3, -1.5, -10)),
+                camera.setVPSize(8, 4).constructRay(4, 4, 0, 0), badRay);
+
+    }
+
+    /**
+     * Image writer which records the written pixels instead of an image
+     */
+    private static class RecordingWriter extends ImageWriter {
+        /**
+         * The written colors, by row and column
+         */
+        final int[][] pixels;
+        /**
+         * The number of writes of every pixel
+         */
+        final int[][] writes;
+
+        /**
+         * Constructor for RecordingWriter
+         *
+         * @param nX amount of pixels by width
+         * @param nY amount of pixels by height
+         */
+        RecordingWriter(int nX, int nY) {
+            super("recording", nX, nY);
+            pixels = new int[nY][nX];
+            writes = new int[nY][nX];
+        }
+
+        @Override
+        public void writePixel(int xIndex, int yIndex, Color color) {
+            pixels[yIndex][xIndex] = color.getColor().getRGB();
+            synchronized (writes) {
+                ++writes[yIndex][xIndex];
+            }
+        }
+    }
+
+    /**
+     * Small scene of a sphere and a triangle
+     */
+    private static final Scene scene = new Scene.SceneBuilder("Test scene")
+            .setAmbientLight(new AmbientLight(new Color(255, 191, 191), new Double3(1, 1, 1)))
+            .setBackground(new Color(75, 127, 90))
+            .build();
+
+    static {
+        scene.getGeometries().add(new Sphere(new Point(0, 0, -100), 50),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100)));
+    }
+
+    /**
+     * Renders the small scene into a recording writer
+     *
+     * @param threads  number of threads
+     * @param tileSize edge of a tile in pixels
+     * @return the recording writer
+     */
+    private static RecordingWriter render(int threads, int tileSize) {
+        return render(threads, tileSize, null, new RayTracerBasic(scene));
+    }
+
+    /**
+     * Renders the small scene into a recording writer
+     *
+     * @param threads   number of threads
+     * @param tileSize  edge of a tile in pixels
+     * @param executor  executor of the tile tasks, null for none
+     * @param rayTracer the ray tracer
+     * @return the recording writer
+     */
+    private static RecordingWriter render(int threads, int tileSize, Executor executor, RayTracerBase rayTracer) {
+        RecordingWriter writer = new RecordingWriter(37, 29);
+        camera(threads, tileSize, executor, rayTracer, writer).renderImage();
+        return writer;
+    }
+
+    /**
+     * Camera of the small scene
+     *
+     * @param threads   number of threads
+     * @param tileSize  edge of a tile in pixels
+     * @param executor  executor of the tile tasks, null for none
+     * @param rayTracer the ray tracer
+     * @param writer    the image writer
+     * @return the camera
+     */
+    private static Camera camera(int threads, int tileSize, Executor executor, RayTracerBase rayTracer,
+                                 ImageWriter writer) {
+        return new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100)
+                .setVPSize(250, 200)
+                .setImageWriter(writer)
+                .setRayTracer(rayTracer)
+                .setMultithreading(threads)
+                .setTileSize(tileSize)
+                .setExecutor(executor)
+                .setDebugPrint(0);
+    }
+
+    /**
+     * Ray tracer which traces slowly, to be stopped in the middle of the rendering
+     */
+    private static class SlowTracer extends RayTracerBase {
+        /**
+         * Number of the traced rays
+         */
+        final AtomicInteger traced = new AtomicInteger();
+
+        /**
+         * Constructor for SlowTracer
+         */
+        SlowTracer() {
+            super(CameraTest.scene);
+        }
+
+        @Override
+        Color traceRay(Ray ray) {
+            traced.incrementAndGet();
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Color.BLACK;
+        }
+    }
+
+    /**
+     * Test method for {@link Camera#renderImage()}.
+     */
+    @Test
+    void testRenderImage() {
+        RecordingWriter single = render(1, 16);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tiles which do not divide the image render every pixel once, as a single thread does
+        RecordingWriter tiled = render(4, 7);
+        for (int row = 0; row < 29; ++row)
+            for (int col = 0; col < 37; ++col)
+                assertEquals(1, tiled.writes[row][col], "Pixel must be rendered once");
+        assertArrayEquals(single.pixels, tiled.pixels, "Tiled image differs");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Single tile for the whole image
+        assertArrayEquals(single.pixels, render(2, 64).pixels, "Single tile image differs");
+
+        // TC12: Tile of a single pixel
+        assertArrayEquals(single.pixels, render(3, 1).pixels, "Single pixel tiles image differs");
+
+        // TC13: Tile must be positive
+        assertThrows(IllegalArgumentException.class, () -> new Camera(ZERO_POINT, new Vector(0, 0, -1),
+                new Vector(0, 1, 0)).setTileSize(0), "Empty tile must be rejected");
+    }
+
+    /**
+     * Test method for {@link Camera#renderImage()} from several threads at once.
+     */
+    @Test
+    void testRenderImageConcurrently() throws Exception {
+        RecordingWriter single = render(1, 16);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Cameras sharing a scene render at the same time, single and multithreaded, with their own progress
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RecordingWriter>> renders = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                int threads = i % 4 + 1;
+                int tileSize = i + 1;
+                renders.add(executor.submit(() -> render(threads, tileSize)));
+            }
+            for (Future<RecordingWriter> render : renders)
+                assertArrayEquals(single.pixels, render.get().pixels, "Concurrent render differs");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method for {@link Camera#renderImage()} with a task per tile on an executor.
+     */
+    @Test
+    void testRenderImageOnExecutor() {
+        RecordingWriter single = render(1, 16);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Tiles on a thread per task, two of them tracing at a time
+            RecordingWriter tiled = render(2, 5, executor, new RayTracerBasic(scene));
+            for (int row = 0; row < 29; ++row)
+                for (int col = 0; col < 37; ++col)
+                    assertEquals(1, tiled.writes[row][col], "Pixel must be rendered once");
+            assertArrayEquals(single.pixels, tiled.pixels, "Tiled image differs");
+
+            // TC02: Failing tile fails the rendering and stops the other tiles
+            AtomicInteger traced = new AtomicInteger();
+            RayTracerBase failing = new RayTracerBase(scene) {
+                @Override
+                Color traceRay(Ray ray) {
+                    if (traced.incrementAndGet() == 10)
+                        throw new IllegalStateException("Failed tile");
+                    return Color.BLACK;
+                }
+            };
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> render(1, 5, executor, failing), "Failure of a tile must fail the rendering");
+            assertEquals("Failed tile", e.getMessage(), "Wrong failure");
+            assertTrue(traced.get() < 37 * 29, "Other tiles must be stopped");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: Executor which refuses the tasks fails the rendering
+            assertThrows(RejectedExecutionException.class, () -> render(2, 5, task -> {
+                throw new RejectedExecutionException("Refused");
+            }, new RayTracerBasic(scene)), "Refused tile must fail the rendering");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method for {@link Camera#renderImageAsync(Instant)}.
+     */
+    @Test
+    void testRenderImageAsync() throws Exception {
+        RecordingWriter single = render(1, 16);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rendering on its own threads completes with the whole image
+        RecordingWriter writer = new RecordingWriter(37, 29);
+        RenderedFrame frame = camera(3, 6, null, new RayTracerBasic(scene), writer).renderImageAsync().get();
+        assertSame(writer, frame.getImageWriter(), "Wrong image writer");
+        assertTrue(frame.isComplete(), "Frame must be complete");
+        assertArrayEquals(single.pixels, writer.pixels, "Asynchronous image differs");
+
+        // TC02: Deadline in the middle of the rendering gives the partial image and its coverage
+        writer = new RecordingWriter(37, 29);
+        frame = camera(2, 5, null, new SlowTracer(), writer)
+                .renderImageAsync(Instant.now().plus(Duration.ofMillis(200))).get();
+        assertFalse(frame.isComplete(), "Frame must be partial");
+        int covered = 0;
+        for (int row = 0; row < 29; ++row)
+            for (int col = 0; col < 37; ++col) {
+                assertEquals(frame.isCovered(col, row) ? 1 : 0, writer.writes[row][col], "Wrong coverage");
+                covered += writer.writes[row][col];
+            }
+        assertEquals(covered, frame.getCoveredPixels(), "Wrong number of covered pixels");
+
+        // TC03: Cancelled rendering stops its tiles
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        SlowTracer tracer = new SlowTracer();
+        CompletableFuture<RenderedFrame> future = camera(2, 5, executor, tracer, new RecordingWriter(37, 29))
+                .renderImageAsync();
+        assertTrue(future.cancel(true), "Rendering must be cancelled");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Tiles must stop");
+        assertTrue(tracer.traced.get() < 37 * 29, "Cancelled rendering must not complete");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Deadline which passed gives an empty frame
+        frame = camera(2, 5, null, new RayTracerBasic(scene), new RecordingWriter(37, 29))
+                .renderImageAsync(Instant.now().minusSeconds(1)).get();
+        assertEquals(0, frame.getCoveredPixels(), "Frame must be empty");
+        assertFalse(frame.isCovered(0, 0), "Pixel must not be covered");
     }
 }
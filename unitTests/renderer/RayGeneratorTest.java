@@ -0,0 +1,56 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RayGenerator} class
+ *
+ * @author Amiad Korman & Omer Dayan
+ */
+class RayGeneratorTest {
+    /**
+     * Camera at (1,2,3) looking along -z, with a view plane of 8X6 at distance 10
+     */
+    private final Camera camera = new Camera(new Point(1, 2, 3), new Vector(0, 0, -1), new Vector(0, 1, 0))
+            .setVPDistance(10).setVPSize(8, 6);
+
+    /**
+     * Generator of the camera's rays for 5X3 pixels
+     */
+    private final RayGenerator generator = new RayGenerator(new Point(1, 2, 3), new Vector(0, 0, -1),
+            new Vector(0, 1, 0), new Vector(1, 0, 0), 10, 8, 6, 5, 3);
+
+    /**
+     * Test method for {@link renderer.RayGenerator#fillTile(int, int, int, int, double[])}.
+     */
+    @Test
+    void testFillTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Directions of a tile are the directions of the camera's rays, row by row
+        double[] directions = new double[3 * 2 * 3];
+        generator.fillTile(1, 1, 4, 3, directions);
+        for (int row = 1, i = 0; row < 3; ++row)
+            for (int col = 1; col < 4; ++col, i += 3) {
+                Vector dir = camera.constructRay(5, 3, col, row).getDir();
+                assertEquals(dir.getX(), directions[i], 1e-12, "Wrong x of direction");
+                assertEquals(dir.getY(), directions[i + 1], 1e-12, "Wrong y of direction");
+                assertEquals(dir.getZ(), directions[i + 2], 1e-12, "Wrong z of direction");
+                assertEquals(camera.constructRay(5, 3, col, row), generator.toRay(directions, i), "Wrong ray");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Center pixel looks straight ahead
+        generator.fillTile(2, 1, 3, 2, directions);
+        assertEquals(0, directions[0], 1e-12, "Wrong x of center direction");
+        assertEquals(0, directions[1], 1e-12, "Wrong y of center direction");
+        assertEquals(-1, directions[2], 1e-12, "Wrong z of center direction");
+
+        // TC12: Empty tile fills nothing
+        directions[0] = 7;
+        generator.fillTile(2, 1, 2, 2, directions);
+        assertEquals(7, directions[0], "Empty tile must not fill");
+    }
+}